@@ -1,108 +1,345 @@
 package cc.graph;
 
 import java.awt.Point;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
 
 /**
  * A Star algorithm for M x N matrix
+ *
+ * Queries are thread-safe as long as the grid is not modified concurrently:
+ * each query searches with a {@link SearchContext} no other query uses at the same time.
+ * One context is kept between single queries, a batch keeps one per running task until it completes.
  */
 public class AStar {
 
     private static final String MSG_INVALID_GRID = "Invalid grid";
+    private static final String MSG_INVALID_CONTEXT = "Search context does not match grid size";
     private static final int[][] MOVE = new int[][]{
             {-1, 0}, {0, -1}, {+1, 0}, {0, +1}
             //{-1, -1}, {-1, +1}, {+1, -1}, {+1, +1}
     };
 
-    private static final char EMPTY = '-';
-    private static final char OBSTACLE = '#';
+    /**
+     * Node expansion strategies, all of them return shortest paths.
+     */
+    public enum Strategy {
+        /** Plain A*: every empty neighbor of an expanded cell goes to the open list. */
+        ASTAR,
+        /** Jump Point Search: only jump points go to the open list, best for open uniform-cost maps. */
+        JUMP_POINT,
+        /** Bidirectional A*: searches from both ends, meets in the middle, for long-haul queries. */
+        BIDIRECTIONAL
+    }
+
+    /**
+     * Receives statistics of every search, called synchronously by the querying thread.
+     */
+    public interface SearchListener {
+        void searchCompleted(SearchStats stats);
+    }
 
     private final int m;
     private final int n;
-    private final char[][] grid;
+    private final BitGrid grid;
+    private final JumpPointSearch jumpPointSearch;
+    private final BidirectionalSearch bidirectionalSearch;
+    // context of the last single query, concurrent queries take new ones
+    private final AtomicReference<SearchContext> spareContext = new AtomicReference<>();
+    private volatile PathCache pathCache;
+    private volatile Landmarks landmarks;
+    private volatile SearchListener searchListener;
 
+    /**
+     * Source / target pair of a batch query.
+     */
+    public record Query(Point source, Point target) {
+    }
+
+    /**
+     * Copies a char matrix of {@link BitGrid#EMPTY} and {@link BitGrid#OBSTACLE} cells.
+     */
     public AStar(char[][] grid) {
+        this(BitGrid.of(grid));
+    }
+
+    /**
+     * Uses given grid as is, without copying, e.g. the one loaded by {@link GridFiles}.
+     */
+    public AStar(BitGrid grid) {
         if (grid == null) {
             throw new IllegalArgumentException(MSG_INVALID_GRID);
         }
-        m = grid.length;
-        n = grid[0].length;
-        this.grid = new char[m][n];
-
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                if (grid[i][j] != EMPTY && grid[i][j] != OBSTACLE) {
-                    throw new IllegalArgumentException(MSG_INVALID_GRID);
-                }
-                this.grid[i][j] = grid[i][j];
-            }
+        this.m = grid.rows();
+        this.n = grid.cols();
+        this.grid = grid;
+        this.jumpPointSearch = new JumpPointSearch(grid);
+        this.bidirectionalSearch = new BidirectionalSearch(grid);
+    }
+
+    public BitGrid grid() {
+        return grid;
+    }
+
+    /**
+     * Blocks or frees a cell of the grid. Planners listening to the grid, e.g. {@link DStarLite},
+     * repair their search state on the next query.
+     */
+    public void setBlocked(Point cell, boolean blocked) {
+        grid.setFree(cell.x, cell.y, !blocked);
+    }
+
+    /**
+     * Enables caching of found paths, or disables it with null.
+     * Cached paths are dropped automatically when the grid changes.
+     */
+    public void setPathCache(PathCache pathCache) {
+        this.pathCache = pathCache;
+    }
+
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Tightens the heuristic with landmark lower bounds selected on this grid, or disables them with null.
+     * After any grid change the landmarks are ignored until new ones are set.
+     */
+    public void setLandmarks(Landmarks landmarks) {
+        if (landmarks != null && landmarks.grid() != grid) {
+            throw new IllegalArgumentException("Landmarks are selected on another grid");
         }
+        this.landmarks = landmarks;
+    }
+
+    public Landmarks getLandmarks() {
+        return landmarks;
+    }
+
+    /**
+     * Enables search statistics, or disables them with null. Paths returned by the path cache are reported
+     * as cached, with zero search counters. While disabled, a query only bumps a few counters of its context.
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * Creates scratch state for {@link #findPath(Point, Point, SearchContext)}.
+     * A context is allocated once and reused by any number of queries on this grid.
+     */
+    public SearchContext newSearchContext() {
+        return new SearchContext(m * n);
     }
 
     public Stack<Point> findPath(Point source, Point target) {
-        Stack<Point> result = new Stack<>();
-        if (!valid(source) || !valid(target) || source.equals(target)) {
-            return result;
+        return findPath(source, target, Strategy.ASTAR);
+    }
+
+    public Stack<Point> findPath(Point source, Point target, Strategy strategy) {
+        return findGridPath(source, target, strategy).toStack();
+    }
+
+    /**
+     * Same as {@link #findPath(Point, Point)}, but uses caller's scratch state,
+     * so a query costs time proportional to the cells it touches, not to the grid size.
+     */
+    public Stack<Point> findPath(Point source, Point target, SearchContext ctx) {
+        return findPath(source, target, Strategy.ASTAR, ctx);
+    }
+
+    public Stack<Point> findPath(Point source, Point target, Strategy strategy, SearchContext ctx) {
+        return findGridPath(source, target, strategy, ctx).toStack();
+    }
+
+    /**
+     * Same path as {@link #findPath(Point, Point)}, packed into a single int[] of cell ids.
+     */
+    public GridPath findGridPath(Point source, Point target) {
+        return findGridPath(source, target, Strategy.ASTAR);
+    }
+
+    public GridPath findGridPath(Point source, Point target, Strategy strategy) {
+        SearchContext ctx = spareContext.getAndSet(null);
+        if (ctx == null) {
+            ctx = newSearchContext();
+        }
+        try {
+            return findGridPath(source, target, strategy, ctx);
+        } finally {
+            spareContext.set(ctx);
         }
+    }
 
-        boolean[][] closedList = new boolean[m][n];
+    public GridPath findGridPath(Point source, Point target, Strategy strategy, SearchContext ctx) {
+        if (!valid(source) || !valid(target) || source.equals(target)) {
+            return GridPath.empty(n);
+        }
+        if (ctx.capacity != m * n) {
+            throw new IllegalArgumentException(MSG_INVALID_CONTEXT);
+        }
 
-        Track[][] tracks = new Track[m][n];
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                tracks[i][j] = new Track();
+        int sourceId = id(source.x, source.y);
+        int targetId = id(target.x, target.y);
+        SearchListener listener = searchListener;
+        long startBytes = 0;
+        long startNanos = 0;
+        if (listener != null) {
+            startBytes = SearchStats.threadAllocatedBytes();
+            startNanos = System.nanoTime();
+        }
+        PathCache cache = pathCache;
+        long version = grid.version();
+        if (cache != null) {
+            GridPath cached = cache.get(sourceId, targetId, version);
+            if (cached != null) {
+                if (listener != null) {
+                    long nanos = System.nanoTime() - startNanos;
+                    long allocatedBytes = startBytes < 0 ? -1 : SearchStats.threadAllocatedBytes() - startBytes;
+                    listener.searchCompleted(SearchStats.cached(strategy, cached, allocatedBytes, nanos));
+                }
+                return cached;
             }
         }
-        tracks[source.x][source.y] = new Track(source.x, source.y, 0.0, 0.0, 0.0);
 
-        Queue<FPoint> openList = new PriorityQueue<>();
-        openList.add(new FPoint(0.0, source));
+        GridPath path = switch (strategy) {
+            case ASTAR -> search(source, target, ctx) ? trace(ctx, targetId) : null;
+            case JUMP_POINT -> jumpPointSearch.search(sourceId, targetId, ctx, this) ? trace(ctx, targetId) : null;
+            case BIDIRECTIONAL -> bidirectionalSearch.search(sourceId, targetId, ctx, this);
+        };
+        if (path == null) {
+            path = GridPath.empty(n);
+        }
+        if (listener != null) {
+            long nanos = System.nanoTime() - startNanos;
+            long allocatedBytes = startBytes < 0 ? -1 : SearchStats.threadAllocatedBytes() - startBytes;
+            listener.searchCompleted(SearchStats.of(strategy, path, ctx, allocatedBytes, nanos));
+        }
+        if (cache != null) {
+            cache.put(sourceId, targetId, version, path);
+        }
+        return path;
+    }
+
+    /**
+     * Computes distances and next steps from every cell to the target at once,
+     * for many agents going to the same target.
+     */
+    public FlowField flowField(Point target) {
+        return FlowField.of(grid, target);
+    }
+
+    /**
+     * Answers all queries in parallel in the common fork-join pool, results are in the order of queries.
+     */
+    public List<Stack<Point>> findPaths(List<Query> queries, Strategy strategy) {
+        return findPaths(queries, strategy, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Answers all queries in parallel in the given pool, results are in the order of queries.
+     * Search contexts are reused by the queries of the batch and dropped with it,
+     * so memory is one context per concurrently running task, not per query.
+     */
+    public List<Stack<Point>> findPaths(List<Query> queries, Strategy strategy, ForkJoinPool pool) {
+        return inParallel(queries, pool,
+                (query, ctx) -> findPath(query.source(), query.target(), strategy, ctx));
+    }
+
+    /**
+     * Same as {@link #findPaths(List, Strategy, ForkJoinPool)}, with paths packed into {@link GridPath}.
+     */
+    public List<GridPath> findGridPaths(List<Query> queries, Strategy strategy, ForkJoinPool pool) {
+        return inParallel(queries, pool,
+                (query, ctx) -> findGridPath(query.source(), query.target(), strategy, ctx));
+    }
+
+    private <T> List<T> inParallel(List<Query> queries, ForkJoinPool pool,
+                                   BiFunction<Query, SearchContext, T> search) {
+        @SuppressWarnings("unchecked")
+        T[] results = (T[]) new Object[queries.size()];
+        Query[] batch = queries.toArray(new Query[0]);
+        // contexts not in use by a task of this batch
+        ConcurrentLinkedDeque<SearchContext> idle = new ConcurrentLinkedDeque<>();
+        pool.submit(() -> IntStream.range(0, batch.length).parallel()
+                .forEach(i -> {
+                    SearchContext ctx = idle.poll();
+                    if (ctx == null) {
+                        ctx = newSearchContext();
+                    }
+                    results[i] = search.apply(batch[i], ctx);
+                    idle.push(ctx);
+                })
+        ).join();
+        return Arrays.asList(results);
+    }
+
+    private boolean search(Point source, Point target, SearchContext ctx) {
+        ctx.reset();
+        int sourceId = id(source.x, source.y);
+        ctx.update(sourceId, sourceId, 0.0);
+
+        // open list holds cell ids (x * n + y), an improved f-score is applied in place
+        IndexedMinHeap openList = ctx.openList;
+        openList.push(sourceId, 0.0);
         boolean found = false;
 
         while (!found && !openList.isEmpty()) {
-            FPoint p = openList.poll();
-            closedList[p.x][p.y] = true;
+            int p = openList.poll();
+            int px = p / n;
+            int py = p % n;
+            ctx.close(p);
             for (int k = 0; k < MOVE.length; k++) {
-                int x = p.x + MOVE[k][0];
-                int y = p.y + MOVE[k][1];
+                int x = px + MOVE[k][0];
+                int y = py + MOVE[k][1];
                 if (valid(x, y)) {
+                    int next = id(x, y);
                     if (x == target.x && y == target.y) {
-                        tracks[x][y].parentX = p.x;
-                        tracks[x][y].parentY = p.y;
-                        trace(tracks, target, result);
+                        ctx.update(next, p, ctx.g(p) + 1.0);
                         found = true;
-                    } else if (!closedList[x][y]) {
-                        double G = tracks[p.x][p.y].g + 1.0;
-                        double H = heuristic(x, y, target.x, target.y);
-                        double F = G + H;
-                        if (F < tracks[x][y].f) {
-                            tracks[x][y].parentX = p.x;
-                            tracks[x][y].parentY = p.y;
-                            tracks[x][y].g = G;
-                            tracks[x][y].h = H;
-                            tracks[x][y].f = F;
-                            openList.add(new FPoint(F, new Point(x, y)));
+                    } else if (!ctx.isClosed(next)) {
+                        double G = ctx.g(p) + 1.0;
+                        if (G < ctx.g(next)) {
+                            double H = heuristic(x, y, target.x, target.y);
+                            ctx.update(next, p, G);
+                            openList.push(next, G + H);
                         }
                     }
                 }
             }
         }
 
-        return result;
+        return found;
     }
 
-    private void trace(Track[][] tracks, Point target, Stack<Point> result) {
-        int x = target.x;
-        int y = target.y;
-        while (!(tracks[x][y].parentX == x && tracks[x][y].parentY == y)) {
-            result.push(new Point(x, y));
-            int nextX = tracks[x][y].parentX;
-            int nextY = tracks[x][y].parentY;
-            x = nextX;
-            y = nextY;
+    /**
+     * Packs path cells from source to target, parents may be several cells away on the same line.
+     */
+    private GridPath trace(SearchContext ctx, int target) {
+        int[] cells = new int[(int) ctx.g(target) + 1];
+        int x = target / n;
+        int y = target % n;
+        int id = target;
+        int i = cells.length - 1;
+        while (ctx.parent[id] != id) {
+            int parent = ctx.parent[id];
+            int dx = Integer.signum(parent / n - x);
+            int dy = Integer.signum(parent % n - y);
+            while (id != parent) {
+                cells[i--] = id;
+                x += dx;
+                y += dy;
+                id = id(x, y);
+            }
         }
+        cells[i] = id;
+        return new GridPath(n, cells);
     }
 
     /**
@@ -110,11 +347,21 @@ public class AStar {
      *   - Manhattan distance
      *   - Diagonal distance
      *   - Euclidean distance (selected)
+     * tightened by {@link Landmarks} when they are set and up to date, the max of consistent heuristics is consistent.
      */
-    private double heuristic(int x1, int y1, int x2, int y2) {
+    double heuristic(int x1, int y1, int x2, int y2) {
         double deltaX = x1 - x2;
         double deltaY = y1 - y2;
-        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        double euclidean = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        Landmarks alt = landmarks;
+        if (alt == null || !alt.isCurrent()) {
+            return euclidean;
+        }
+        return Math.max(euclidean, alt.lowerBound(id(x1, y1), id(x2, y2)));
+    }
+
+    private int id(int x, int y) {
+        return x * n + y;
     }
 
     private boolean valid(Point point) {
@@ -122,42 +369,7 @@ public class AStar {
     }
 
     private boolean valid(int x, int y) {
-        return x >= 0 && x < m && y >= 0 && y < n && grid[x][y] == EMPTY;
-    }
-
-    private static class Track {
-        private int parentX = -1;
-        private int parentY = -1;
-        // f = g + h
-        private double f = Double.MAX_VALUE;
-        private double g = Double.MAX_VALUE;
-        private double h = Double.MAX_VALUE;
-
-        private Track() {
-        }
-
-        private Track(int parentX, int parentY, double f, double g, double h) {
-            this.parentX = parentX;
-            this.parentY = parentY;
-            this.f = f;
-            this.g = g;
-            this.h = h;
-        }
-    }
-
-    private static class FPoint extends Point implements Comparable<FPoint> {
-        // f = g + h
-        private double f = 0.0;
-
-        public FPoint(double f, Point point) {
-            super(point);
-            this.f = f;
-        }
-
-        @Override
-        public int compareTo(FPoint other) {
-            return java.lang.Double.compare(this.f, other.f);
-        }
+        return grid.isFree(x, y);
     }
 
 }
\ No newline at end of file
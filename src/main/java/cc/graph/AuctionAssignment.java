@@ -0,0 +1,183 @@
+package cc.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Minimum cost assignment of a square int matrix by the auction algorithm with epsilon scaling (Bertsekas),
+ * an alternative to {@link HungarianAlgorithm#solve(CostMatrix)} with the same result type.
+ *
+ * Unassigned rows bid for their cheapest column (cost + price), raising its price by the gap
+ * to the second cheapest one plus epsilon; the highest bid wins and the previous owner bids again.
+ * All bids of a round are computed in parallel against the same prices (Jacobi auction),
+ * only conflict resolution is sequential, O(bidders) per round.
+ *
+ * Exact for int costs: they are scaled by n + 1, so that the last phase with epsilon = 1
+ * is less than 1 / n of an original unit, which makes the assignment optimal.
+ * Prices are long, costs and their spread must fit into int.
+ */
+public class AuctionAssignment {
+
+    // epsilon is divided by this factor after every phase
+    private static final long SCALING = 5;
+    // below this many cells per round bids are computed by the calling thread
+    private static final long PARALLEL_THRESHOLD = 1 << 15;
+
+    private final CostMatrix costs;
+    private final int n;
+    private final long scale;
+    private final long[] prices;
+    private final int[] rowToColumn;
+    private final int[] columnToRow;
+
+    // bids of the current round, by bidder index
+    private final int[] bidColumns;
+    private final long[] bidPrices;
+    // column -> best bidder of the current round, NONE if no bid
+    private final int[] winners;
+    private final long[] winningPrices;
+    // rows outbid in the current round
+    private final int[] outbid;
+
+    private AuctionAssignment(CostMatrix costs) {
+        this.costs = costs;
+        this.n = costs.size();
+        this.scale = n + 1L;
+        prices = new long[n];
+        rowToColumn = new int[n];
+        columnToRow = new int[n];
+        bidColumns = new int[n];
+        bidPrices = new long[n];
+        winners = new int[n];
+        winningPrices = new long[n];
+        outbid = new int[n];
+        Arrays.fill(winners, HungarianAlgorithm.Assignment.NONE);
+    }
+
+    /**
+     * Solves a square matrix bidding in the common fork-join pool.
+     */
+    public static HungarianAlgorithm.Assignment solve(int[][] costMatrix) {
+        return solve(CostMatrix.of(costMatrix), ForkJoinPool.commonPool());
+    }
+
+    public static HungarianAlgorithm.Assignment solve(CostMatrix costMatrix) {
+        return solve(costMatrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Solves a square matrix bidding in the given pool, the matrix is not modified.
+     */
+    public static HungarianAlgorithm.Assignment solve(CostMatrix costMatrix, ForkJoinPool pool) {
+        AuctionAssignment auction = new AuctionAssignment(costMatrix);
+        auction.run(pool);
+        long total = 0;
+        for (int i = 0; i < auction.n; i++) {
+            total += costMatrix.get(i, auction.rowToColumn[i]);
+        }
+        return new HungarianAlgorithm.Assignment(auction.rowToColumn, total);
+    }
+
+    private void run(ForkJoinPool pool) {
+        if (n == 0) {
+            return;
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                min = Math.min(min, costs.get(i, j));
+                max = Math.max(max, costs.get(i, j));
+            }
+        }
+        long epsilon = Math.max(1, (max - min) * scale / 2);
+        int[] bidders = new int[n];
+        while (true) {
+            // a phase starts from scratch, keeping the prices of the previous one
+            Arrays.fill(rowToColumn, HungarianAlgorithm.Assignment.NONE);
+            Arrays.fill(columnToRow, HungarianAlgorithm.Assignment.NONE);
+            for (int i = 0; i < n; i++) {
+                bidders[i] = i;
+            }
+            int count = n;
+            while (count > 0) {
+                count = round(bidders, count, epsilon, pool);
+            }
+            if (epsilon == 1) {
+                return;
+            }
+            epsilon = Math.max(1, epsilon / SCALING);
+        }
+    }
+
+    /**
+     * Lets the given rows bid, assigns every bid column to its best bidder.
+     * Returns the number of unassigned rows, which are moved to the front of bidders.
+     */
+    private int round(int[] bidders, int count, long epsilon, ForkJoinPool pool) {
+        if ((long) count * n < PARALLEL_THRESHOLD) {
+            for (int k = 0; k < count; k++) {
+                bid(k, bidders[k], epsilon);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, count).parallel()
+                    .forEach(k -> bid(k, bidders[k], epsilon))
+            ).join();
+        }
+
+        for (int k = 0; k < count; k++) {
+            int col = bidColumns[k];
+            if (winners[col] == HungarianAlgorithm.Assignment.NONE || bidPrices[k] > winningPrices[col]) {
+                winners[col] = bidders[k];
+                winningPrices[col] = bidPrices[k];
+            }
+        }
+        int next = 0;
+        int outbidCount = 0;
+        for (int k = 0; k < count; k++) {
+            int row = bidders[k];
+            int col = bidColumns[k];
+            if (winners[col] != row) {
+                bidders[next++] = row;
+                continue;
+            }
+            int previous = columnToRow[col];
+            if (previous != HungarianAlgorithm.Assignment.NONE) {
+                rowToColumn[previous] = HungarianAlgorithm.Assignment.NONE;
+                outbid[outbidCount++] = previous;
+            }
+            columnToRow[col] = row;
+            rowToColumn[row] = col;
+            prices[col] = winningPrices[col];
+        }
+        for (int k = 0; k < count; k++) {
+            winners[bidColumns[k]] = HungarianAlgorithm.Assignment.NONE;
+        }
+        System.arraycopy(outbid, 0, bidders, next, outbidCount);
+        return next + outbidCount;
+    }
+
+    /**
+     * Bid of a row: its cheapest column by scaled cost + price, and the price at which
+     * that column stays epsilon-cheapest for the row.
+     */
+    private void bid(int k, int row, long epsilon) {
+        long best = Long.MAX_VALUE;
+        long second = Long.MAX_VALUE;
+        int bestColumn = 0;
+        for (int j = 0; j < n; j++) {
+            long total = costs.get(row, j) * scale + prices[j];
+            if (total < best) {
+                second = best;
+                best = total;
+                bestColumn = j;
+            } else if (total < second) {
+                second = total;
+            }
+        }
+        bidColumns[k] = bestColumn;
+        // a single column has no competitor, any raise keeps it cheapest
+        bidPrices[k] = prices[bestColumn] + (second == Long.MAX_VALUE ? 0 : second - best) + epsilon;
+    }
+}
@@ -0,0 +1,102 @@
+package cc.graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Solves batches of many small independent assignment problems (tens to hundreds of rows) concurrently,
+ * with the potentials method of {@link HungarianAlgorithm#solve(int[][])}.
+ *
+ * Work runs in a pool of a fixed number of threads owned by this solver, and every worker thread keeps
+ * its own work arrays, so a solve allocates its result only. One solver may serve batches from many threads.
+ */
+public class BatchAssignment implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<HungarianAlgorithm.Scratch> scratches =
+            ThreadLocal.withInitial(HungarianAlgorithm.Scratch::new);
+
+    /**
+     * Creates a solver with one worker per available processor.
+     */
+    public BatchAssignment() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchAssignment(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Solves all matrices, results are in the order of matrices.
+     */
+    public Result solve(List<int[][]> matrices) {
+        int[][][] batch = matrices.toArray(new int[0][][]);
+        HungarianAlgorithm.Assignment[] assignments = new HungarianAlgorithm.Assignment[batch.length];
+        long[] latencies = new long[batch.length];
+        long start = System.nanoTime();
+        pool.submit(() -> IntStream.range(0, batch.length).parallel()
+                .forEach(k -> {
+                    long solveStart = System.nanoTime();
+                    assignments[k] = HungarianAlgorithm.solve(batch[k], scratches.get());
+                    latencies[k] = System.nanoTime() - solveStart;
+                })
+        ).join();
+        long nanos = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(Arrays.asList(assignments), nanos, latencies);
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Stops the worker threads, after the batches in progress are solved.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Assignments of a batch and its timings.
+     *
+     * @param assignments      assignments in the order of matrices
+     * @param nanos            wall time of the batch
+     * @param sortedLatencies  solve time of every matrix, ascending
+     */
+    public record Result(List<HungarianAlgorithm.Assignment> assignments, long nanos, long[] sortedLatencies) {
+
+        public int size() {
+            return sortedLatencies.length;
+        }
+
+        /**
+         * Solved matrices per second.
+         */
+        public double throughput() {
+            return nanos == 0 ? 0 : size() * 1e9 / nanos;
+        }
+
+        /**
+         * Latency of a quantile q in [0, 1] by the nearest-rank method, e.g. 0.99 for p99; 0 for an empty batch.
+         */
+        public long latency(double q) {
+            if (q < 0 || q > 1) {
+                throw new IllegalArgumentException("Quantile is out of [0, 1]: " + q);
+            }
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(q * sortedLatencies.length);
+            return sortedLatencies[Math.max(0, rank - 1)];
+        }
+
+        public long maxLatency() {
+            return latency(1);
+        }
+    }
+}
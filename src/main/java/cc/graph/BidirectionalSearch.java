@@ -0,0 +1,90 @@
+package cc.graph;
+
+/**
+ * Bidirectional A* for uniform-cost 4-connected grids: one search runs forward from source
+ * with heuristic to target, the other one backward from target with heuristic to source.
+ *
+ * mu - the cost of the best path found so far through a cell reached by both searches.
+ * With consistent heuristics the search stops when the minimal f-score of either open list reaches mu:
+ * every path cheaper than mu would still have a cell with a smaller f-score in both open lists.
+ * Each step expands the side whose open list has the smaller top f-score.
+ */
+class BidirectionalSearch {
+
+    private static final int[][] MOVE = new int[][]{
+            {-1, 0}, {0, -1}, {+1, 0}, {0, +1}
+    };
+
+    private final BitGrid grid;
+    private final int n;
+
+    BidirectionalSearch(BitGrid grid) {
+        this.grid = grid;
+        this.n = grid.cols();
+    }
+
+    /**
+     * Returns the shortest path from source to target cell ids, or null if target is unreachable.
+     * The heuristic is the one of the querying astar.
+     */
+    GridPath search(int source, int target, SearchContext ctx, AStar astar) {
+        SearchContext forward = ctx;
+        SearchContext backward = ctx.reverse();
+        forward.reset();
+        backward.reset();
+        forward.update(source, source, 0.0);
+        forward.openList.push(source, 0.0);
+        backward.update(target, target, 0.0);
+        backward.openList.push(target, 0.0);
+
+        double mu = Double.MAX_VALUE;
+        int meeting = -1;
+        while (!forward.openList.isEmpty() && !backward.openList.isEmpty()
+                && forward.openList.peekKey() < mu && backward.openList.peekKey() < mu) {
+            boolean isForward = forward.openList.peekKey() <= backward.openList.peekKey();
+            SearchContext side = isForward ? forward : backward;
+            SearchContext other = isForward ? backward : forward;
+            int goal = isForward ? target : source;
+
+            int p = side.openList.poll();
+            side.close(p);
+            int px = p / n;
+            int py = p % n;
+            for (int[] move : MOVE) {
+                int x = px + move[0];
+                int y = py + move[1];
+                if (!grid.isFree(x, y)) {
+                    continue;
+                }
+                int next = x * n + y;
+                if (side.isClosed(next)) {
+                    continue;
+                }
+                double G = side.g(p) + 1.0;
+                if (G < side.g(next)) {
+                    side.update(next, p, G);
+                    side.openList.push(next, G + astar.heuristic(x, y, goal / n, goal % n));
+                }
+                if (other.isTouched(next) && side.g(next) + other.g(next) < mu) {
+                    mu = side.g(next) + other.g(next);
+                    meeting = next;
+                }
+            }
+        }
+        return meeting == -1 ? null : trace(forward, backward, meeting, (int) mu);
+    }
+
+    private GridPath trace(SearchContext forward, SearchContext backward, int meeting, int length) {
+        int[] cells = new int[length + 1];
+        int i = (int) forward.g(meeting);
+        for (int id = meeting; i >= 0; id = forward.parent[id]) {
+            cells[i--] = id;
+        }
+        i = (int) forward.g(meeting);
+        for (int id = meeting; i < length; ) {
+            id = backward.parent[id];
+            cells[++i] = id;
+        }
+        return new GridPath(n, cells);
+    }
+}
@@ -0,0 +1,152 @@
+package cc.graph;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Passability of M x N grid map stored as a bitset: 1 bit per cell, 1 - empty, 0 - obstacle.
+ * Each row starts at a word boundary, so a row can be scanned 64 cells at a time.
+ * Cells outside of the grid are treated as obstacles.
+ *
+ * The grid is mutable: every actual cell change increments {@link #version()} and is reported to listeners,
+ * so planners built on the grid can repair their state instead of starting from scratch.
+ */
+public class BitGrid {
+
+    /**
+     * Receives changes of grid cells, called synchronously by {@link #setFree(int, int, boolean)}.
+     */
+    public interface CellListener {
+        void cellChanged(int x, int y, boolean free);
+    }
+
+    public static final char EMPTY = '-';
+    public static final char OBSTACLE = '#';
+
+    static final String MSG_INVALID_GRID = "Invalid grid";
+
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final long[] bits;
+    private final List<CellListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile long version;
+
+    /**
+     * Creates a grid with all cells blocked.
+     */
+    public BitGrid(int rows, int cols) {
+        this(rows, cols, new long[checkedWords(rows, cols)]);
+    }
+
+    BitGrid(int rows, int cols, long[] bits) {
+        if (rows <= 0 || cols <= 0 || bits.length != checkedWords(rows, cols)) {
+            throw new IllegalArgumentException(MSG_INVALID_GRID);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = wordsPerRow(cols);
+        this.bits = bits;
+    }
+
+    /**
+     * Builds a grid from a char matrix of {@link #EMPTY} and {@link #OBSTACLE} cells.
+     */
+    public static BitGrid of(char[][] grid) {
+        if (grid == null || grid.length == 0 || grid[0] == null) {
+            throw new IllegalArgumentException(MSG_INVALID_GRID);
+        }
+        BitGrid result = new BitGrid(grid.length, grid[0].length);
+        for (int i = 0; i < result.rows; i++) {
+            if (grid[i] == null || grid[i].length != result.cols) {
+                throw new IllegalArgumentException(MSG_INVALID_GRID);
+            }
+            for (int j = 0; j < result.cols; j++) {
+                if (grid[i][j] == EMPTY) {
+                    result.bits[i * result.wordsPerRow + (j >>> 6)] |= 1L << j;
+                } else if (grid[i][j] != OBSTACLE) {
+                    throw new IllegalArgumentException(MSG_INVALID_GRID);
+                }
+            }
+        }
+        return result;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public boolean isFree(int x, int y) {
+        return x >= 0 && x < rows && y >= 0 && y < cols
+                && (bits[x * wordsPerRow + (y >>> 6)] & (1L << y)) != 0;
+    }
+
+    public void setFree(int x, int y, boolean free) {
+        if (x < 0 || x >= rows || y < 0 || y >= cols) {
+            throw new IndexOutOfBoundsException("Cell (" + x + ", " + y + ") is out of grid");
+        }
+        int index = x * wordsPerRow + (y >>> 6);
+        long word = free ? bits[index] | (1L << y) : bits[index] & ~(1L << y);
+        if (word == bits[index]) {
+            return;
+        }
+        bits[index] = word;
+        version++;
+        for (CellListener listener : listeners) {
+            listener.cellChanged(x, y, free);
+        }
+    }
+
+    /**
+     * Number of cell changes made since the grid was created.
+     */
+    public long version() {
+        return version;
+    }
+
+    public void addListener(CellListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(CellListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns 64 cells of row x starting at column 64 * wordIndex, bit i is column 64 * wordIndex + i.
+     * Rows and words outside of the grid are returned as blocked (0).
+     */
+    long word(int x, int wordIndex) {
+        if (x < 0 || x >= rows || wordIndex < 0 || wordIndex >= wordsPerRow) {
+            return 0L;
+        }
+        return bits[x * wordsPerRow + wordIndex];
+    }
+
+    int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    long[] bits() {
+        return bits;
+    }
+
+    static int wordsPerRow(int cols) {
+        return (cols + 63) >>> 6;
+    }
+
+    private static int checkedWords(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException(MSG_INVALID_GRID);
+        }
+        long words = (long) rows * wordsPerRow(cols);
+        if (words > Integer.MAX_VALUE - 8 || (long) rows * cols > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Grid is too large: " + rows + " x " + cols);
+        }
+        return (int) words;
+    }
+}
@@ -0,0 +1,144 @@
+package cc.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Monotone bucket priority queue (Dial's algorithm) over int ids in range [0, capacity) with int keys.
+ * Buckets form a circular array and hold ids in intrusive doubly-linked lists,
+ * so push / decrease-key / poll are O(1) amortized, with no comparisons and no allocation.
+ *
+ * Requirements (hold for Dijkstra and for A* with a consistent heuristic):
+ *   - keys are never below the last polled key;
+ *   - queued keys differ by at most span.
+ */
+public class BucketQueue {
+
+    private static final int NONE = -1;
+
+    private final int[] heads;    // bucket -> first id
+    private final int[] next;     // id -> next id in its bucket
+    private final int[] previous; // id -> previous id in its bucket
+    private final int[] keys;     // id -> key
+    private final boolean[] queued;
+    private final int mask;
+    private int current;          // lower bound of queued keys
+    private int upper;            // upper bound of queued keys
+    private int lastPolled = Integer.MIN_VALUE;
+    private int size;
+
+    /**
+     * @param span maximal difference between queued keys
+     */
+    public BucketQueue(int capacity, int span) {
+        int buckets = Integer.highestOneBit(Math.max(1, span) * 2 + 1);
+        heads = new int[buckets];
+        mask = buckets - 1;
+        next = new int[capacity];
+        previous = new int[capacity];
+        keys = new int[capacity];
+        queued = new boolean[capacity];
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Maximal supported difference between queued keys, at least the span given to the constructor.
+     */
+    public int span() {
+        return mask;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return queued[id];
+    }
+
+    public int key(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Inserts id, or moves an already queued id to its new key.
+     */
+    public void push(int id, int key) {
+        if (key < lastPolled) {
+            throw new IllegalArgumentException("Key " + key + " is below the last polled key " + lastPolled);
+        }
+        if (size == 0) {
+            current = key;
+            upper = key;
+        } else {
+            int low = Math.min(current, key);
+            int high = Math.max(upper, key);
+            if (high - low > mask) {
+                throw new IllegalArgumentException("Key " + key + " is out of range [" + (high - mask) + ", " + (low + mask) + "]");
+            }
+            current = low;
+            upper = high;
+        }
+        if (queued[id]) {
+            unlink(id);
+        } else {
+            queued[id] = true;
+            size++;
+        }
+        keys[id] = key;
+        int bucket = key & mask;
+        previous[id] = NONE;
+        next[id] = heads[bucket];
+        if (heads[bucket] != NONE) {
+            previous[heads[bucket]] = id;
+        }
+        heads[bucket] = id;
+    }
+
+    /**
+     * Removes and returns an id with minimal key, the most recently pushed one among equal keys.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        while (heads[current & mask] == NONE) {
+            current++;
+        }
+        lastPolled = current;
+        int id = heads[current & mask];
+        unlink(id);
+        queued[id] = false;
+        size--;
+        return id;
+    }
+
+    /**
+     * Empties the queue in O(size + buckets), so it can be reused by the next search.
+     */
+    public void clear() {
+        for (int bucket = 0; bucket < heads.length; bucket++) {
+            for (int id = heads[bucket]; id != NONE; id = next[id]) {
+                queued[id] = false;
+            }
+            heads[bucket] = NONE;
+        }
+        size = 0;
+        lastPolled = Integer.MIN_VALUE;
+    }
+
+    private void unlink(int id) {
+        if (previous[id] != NONE) {
+            next[previous[id]] = next[id];
+        } else {
+            heads[keys[id] & mask] = next[id];
+        }
+        if (next[id] != NONE) {
+            previous[next[id]] = previous[id];
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package cc.graph;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Square int cost matrix stored row-major in one flat block: an int[] while n * n fits into an array,
+ * an off-heap {@link MemorySegment} otherwise (matrices over 2 GB).
+ * One object for the whole matrix instead of one per row, and every pass walks memory sequentially.
+ *
+ * Bulk steps of {@link HungarianAlgorithm} are inner loops over a row without branches,
+ * so the JIT compiles them to SIMD instructions (superword auto-vectorization).
+ * Column-wise steps keep per-column state in an int[n] and still scan the matrix row by row.
+ * On large matrices the uncovered-min scan and the adjustment run over row blocks
+ * in parallel in the common fork-join pool; blocks never share a row, so no locking is needed.
+ * Their per-column masks are kept between calls, so rounds of the line cover method do not allocate.
+ *
+ * Not thread-safe.
+ */
+public class CostMatrix {
+
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+    // matrices with at least this many cells are processed in parallel row blocks
+    private static final long PARALLEL_CELLS = 1 << 18;
+    // cells per row block, large enough to amortize task overhead
+    private static final int BLOCK_CELLS = 1 << 15;
+
+    private final int n;
+    private final int[] data;            // row-major, null if off-heap
+    private final MemorySegment segment; // row-major, null if on-heap
+
+    // per-column buffers of minUncovered and adjust, allocated on first use
+    private int[] columnMask;
+    private int[] coveredRowDelta;
+
+    /**
+     * Creates a zero matrix.
+     */
+    public CostMatrix(int n) {
+        this(n, (long) n * n > MAX_ARRAY);
+    }
+
+    CostMatrix(int n, boolean offHeap) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Invalid matrix size: " + n);
+        }
+        this.n = n;
+        if (offHeap) {
+            this.data = null;
+            // zeroed, freed by GC together with this matrix
+            this.segment = Arena.ofAuto().allocate((long) n * n * Integer.BYTES, Integer.BYTES);
+        } else {
+            this.data = new int[n * n];
+            this.segment = null;
+        }
+    }
+
+    public static CostMatrix of(int[][] matrix) {
+        CostMatrix result = new CostMatrix(matrix.length);
+        for (int i = 0; i < result.n; i++) {
+            if (matrix[i].length != result.n) {
+                throw new IllegalArgumentException("Cost matrix is not square");
+            }
+            result.setRow(i, matrix[i]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isOffHeap() {
+        return segment != null;
+    }
+
+    public int get(int i, int j) {
+        long index = (long) i * n + j;
+        return data != null ? data[(int) index] : segment.getAtIndex(ValueLayout.JAVA_INT, index);
+    }
+
+    public void set(int i, int j, int value) {
+        long index = (long) i * n + j;
+        if (data != null) {
+            data[(int) index] = value;
+        } else {
+            segment.setAtIndex(ValueLayout.JAVA_INT, index, value);
+        }
+    }
+
+    public void setRow(int i, int[] row) {
+        if (data != null) {
+            System.arraycopy(row, 0, data, i * n, n);
+        } else {
+            MemorySegment.copy(row, 0, segment, ValueLayout.JAVA_INT, (long) i * n * Integer.BYTES, n);
+        }
+    }
+
+    public int[] row(int i) {
+        return row(i, new int[n]);
+    }
+
+    /**
+     * Copies row i into the first n elements of target, returns target.
+     */
+    public int[] row(int i, int[] target) {
+        if (data != null) {
+            System.arraycopy(data, i * n, target, 0, n);
+        } else {
+            MemorySegment.copy(segment, ValueLayout.JAVA_INT, (long) i * n * Integer.BYTES, target, 0, n);
+        }
+        return target;
+    }
+
+    /**
+     * Copies row i widened to long into the first n elements of target, returns target.
+     */
+    public long[] row(int i, long[] target) {
+        if (data != null) {
+            int from = i * n;
+            for (int j = 0; j < n; j++) {
+                target[j] = data[from + j];
+            }
+        } else {
+            long from = (long) i * n;
+            for (int j = 0; j < n; j++) {
+                target[j] = segment.getAtIndex(ValueLayout.JAVA_INT, from + j);
+            }
+        }
+        return target;
+    }
+
+    public int[][] toArray() {
+        int[][] result = new int[n][];
+        for (int i = 0; i < n; i++) {
+            result[i] = row(i);
+        }
+        return result;
+    }
+
+    /**
+     * Subtracts the row minimum from every row.
+     */
+    public void reduceRows() {
+        for (int i = 0; i < n; i++) {
+            if (data != null) {
+                int from = i * n;
+                int to = from + n;
+                int min = Integer.MAX_VALUE;
+                for (int k = from; k < to; k++) {
+                    min = Math.min(min, data[k]);
+                }
+                for (int k = from; k < to; k++) {
+                    data[k] -= min;
+                }
+            } else {
+                long from = (long) i * n;
+                long to = from + n;
+                int min = Integer.MAX_VALUE;
+                for (long k = from; k < to; k++) {
+                    min = Math.min(min, segment.getAtIndex(ValueLayout.JAVA_INT, k));
+                }
+                for (long k = from; k < to; k++) {
+                    segment.setAtIndex(ValueLayout.JAVA_INT, k, segment.getAtIndex(ValueLayout.JAVA_INT, k) - min);
+                }
+            }
+        }
+    }
+
+    /**
+     * Subtracts the column minimum from every column, in two row-major passes.
+     */
+    public void reduceColumns() {
+        int[] min = new int[n];
+        Arrays.fill(min, Integer.MAX_VALUE);
+        for (int i = 0; i < n; i++) {
+            if (data != null) {
+                int from = i * n;
+                for (int j = 0; j < n; j++) {
+                    min[j] = Math.min(min[j], data[from + j]);
+                }
+            } else {
+                long from = (long) i * n;
+                for (int j = 0; j < n; j++) {
+                    min[j] = Math.min(min[j], segment.getAtIndex(ValueLayout.JAVA_INT, from + j));
+                }
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            min[j] = -min[j];
+        }
+        addToRows(min, null, null);
+    }
+
+    /**
+     * Minimal value of cells not covered by a row or a column line, {@link Integer#MAX_VALUE} if none.
+     * Values must be non-negative, as they are after the reductions.
+     */
+    public int minUncovered(BitSet coveredRows, BitSet coveredCols) {
+        allocateColumnBuffers();
+        // covered column -> all ones but sign, so that (value | mask) == MAX_VALUE for non-negative values
+        int[] mask = columnMask;
+        for (int j = 0; j < n; j++) {
+            mask[j] = coveredCols.get(j) ? Integer.MAX_VALUE : 0;
+        }
+        if ((long) n * n < PARALLEL_CELLS) {
+            return minUncovered(mask, coveredRows, 0, n);
+        }
+        int rowsPerBlock = rowsPerBlock();
+        return IntStream.range(0, blocks(rowsPerBlock)).parallel()
+                .map(b -> minUncovered(mask, coveredRows, b * rowsPerBlock, Math.min(n, (b + 1) * rowsPerBlock)))
+                .min()
+                .orElse(Integer.MAX_VALUE);
+    }
+
+    private int minUncovered(int[] mask, BitSet coveredRows, int fromRow, int toRow) {
+        int min = Integer.MAX_VALUE;
+        for (int i = coveredRows.nextClearBit(fromRow); i < toRow; i = coveredRows.nextClearBit(i + 1)) {
+            if (data != null) {
+                int from = i * n;
+                for (int j = 0; j < n; j++) {
+                    min = Math.min(min, data[from + j] | mask[j]);
+                }
+            } else {
+                long from = (long) i * n;
+                for (int j = 0; j < n; j++) {
+                    min = Math.min(min, segment.getAtIndex(ValueLayout.JAVA_INT, from + j) | mask[j]);
+                }
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Step 4 of the line cover method: subtracts h from uncovered cells and adds h to cells covered twice.
+     */
+    public void adjust(int h, BitSet coveredRows, BitSet coveredCols) {
+        allocateColumnBuffers();
+        // column -> delta for uncovered rows / for covered rows
+        int[] uncoveredRowDelta = columnMask;
+        for (int j = 0; j < n; j++) {
+            boolean covered = coveredCols.get(j);
+            uncoveredRowDelta[j] = covered ? 0 : -h;
+            coveredRowDelta[j] = covered ? h : 0;
+        }
+        addToRows(uncoveredRowDelta, coveredRowDelta, coveredRows);
+    }
+
+    /**
+     * Adds delta[j] to column j of every row, coveredDelta[j] instead to rows in coveredRows if it is not null.
+     */
+    private void addToRows(int[] delta, int[] coveredDelta, BitSet coveredRows) {
+        if ((long) n * n < PARALLEL_CELLS) {
+            addToRows(delta, coveredDelta, coveredRows, 0, n);
+            return;
+        }
+        int rowsPerBlock = rowsPerBlock();
+        IntStream.range(0, blocks(rowsPerBlock)).parallel()
+                .forEach(b -> addToRows(delta, coveredDelta, coveredRows,
+                        b * rowsPerBlock, Math.min(n, (b + 1) * rowsPerBlock)));
+    }
+
+    private void addToRows(int[] delta, int[] coveredDelta, BitSet coveredRows, int fromRow, int toRow) {
+        for (int i = fromRow; i < toRow; i++) {
+            int[] rowDelta = coveredRows != null && coveredRows.get(i) ? coveredDelta : delta;
+            if (data != null) {
+                int from = i * n;
+                for (int j = 0; j < n; j++) {
+                    data[from + j] += rowDelta[j];
+                }
+            } else {
+                long from = (long) i * n;
+                for (int j = 0; j < n; j++) {
+                    long k = from + j;
+                    segment.setAtIndex(ValueLayout.JAVA_INT, k, segment.getAtIndex(ValueLayout.JAVA_INT, k) + rowDelta[j]);
+                }
+            }
+        }
+    }
+
+    private void allocateColumnBuffers() {
+        if (columnMask == null) {
+            columnMask = new int[n];
+            coveredRowDelta = new int[n];
+        }
+    }
+
+    private int rowsPerBlock() {
+        return Math.max(1, BLOCK_CELLS / n);
+    }
+
+    private int blocks(int rowsPerBlock) {
+        return (n + rowsPerBlock - 1) / rowsPerBlock;
+    }
+}
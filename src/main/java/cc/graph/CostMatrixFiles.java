@@ -0,0 +1,180 @@
+package cc.graph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Loaders of square cost matrices for {@link HungarianAlgorithm} which never create a String per number.
+ *
+ * Text format (hungarian_input_*.txt): n, then n rows of n whitespace-separated int costs.
+ * Numbers are parsed straight from a byte buffer, anything after the last row is ignored.
+ *
+ * Binary format (little-endian):
+ *   int magic "CMX1", int n, then n * n int costs row by row.
+ * Loading is a memory-mapped bulk copy.
+ */
+public class CostMatrixFiles {
+
+    static final int MAGIC = 0x31584D43; // "CMX1"
+    static final String MSG_INVALID_MATRIX = "Invalid cost matrix";
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+    // mapped chunk size, must be a multiple of Integer.BYTES
+    private static final long MAX_CHUNK = 1L << 30;
+
+    private CostMatrixFiles() {
+    }
+
+    public static int[][] readText(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return readText(in);
+        }
+    }
+
+    public static int[][] readText(InputStream in) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(in);
+        int n = tokenizer.nextInt();
+        if (n < 0) {
+            throw new IOException(MSG_INVALID_MATRIX + ": bad size " + n);
+        }
+        int[][] matrix = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            int[] row = matrix[i];
+            for (int j = 0; j < n; j++) {
+                row[j] = tokenizer.nextInt();
+            }
+        }
+        return matrix;
+    }
+
+    public static void writeBinary(int[][] matrix, Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(matrix.length);
+            for (int[] row : matrix) {
+                if (row.length != matrix.length) {
+                    throw new IllegalArgumentException("Cost matrix is not square");
+                }
+                for (int cost : row) {
+                    if (buffer.remaining() < Integer.BYTES) {
+                        out.write(buffer.array(), 0, buffer.position());
+                        buffer.clear();
+                    }
+                    buffer.putInt(cost);
+                }
+            }
+            out.write(buffer.array(), 0, buffer.position());
+        }
+    }
+
+    /**
+     * Memory-maps a binary matrix file and bulk-copies its rows.
+     */
+    public static int[][] mapBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(MSG_INVALID_MATRIX + ": truncated header");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(MSG_INVALID_MATRIX + ": bad magic");
+            }
+            int n = header.getInt();
+            if (n < 0 || channel.size() != HEADER_BYTES + (long) n * n * Integer.BYTES) {
+                throw new IOException(MSG_INVALID_MATRIX + ": unexpected file size");
+            }
+            int[][] matrix = new int[n][n];
+            int row = 0;
+            int col = 0;
+            long offset = HEADER_BYTES;
+            long end = channel.size();
+            while (offset < end) {
+                long chunk = Math.min(MAX_CHUNK, end - offset);
+                IntBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, chunk)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asIntBuffer();
+                // a row may continue in the next chunk
+                while (mapped.hasRemaining()) {
+                    int count = Math.min(n - col, mapped.remaining());
+                    mapped.get(matrix[row], col, count);
+                    col += count;
+                    if (col == n) {
+                        row++;
+                        col = 0;
+                    }
+                }
+                offset += chunk;
+            }
+            return matrix;
+        }
+    }
+
+    /**
+     * Reads whitespace-separated ints from a byte buffer refilled by bulk reads.
+     */
+    private static class Tokenizer {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        Tokenizer(InputStream in) {
+            this.in = in;
+        }
+
+        int nextInt() throws IOException {
+            int c = read();
+            while (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                c = read();
+            }
+            if (c == -1) {
+                throw new IOException(MSG_INVALID_MATRIX + ": unexpected end of input");
+            }
+            boolean negative = c == '-';
+            if (c == '-' || c == '+') {
+                c = read();
+            }
+            if (c < '0' || c > '9') {
+                throw new IOException(MSG_INVALID_MATRIX + ": unexpected character '" + (char) c + "'");
+            }
+            long value = 0;
+            while (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw new IOException(MSG_INVALID_MATRIX + ": number is out of int range");
+                }
+                c = read();
+            }
+            if (c != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                throw new IOException(MSG_INVALID_MATRIX + ": unexpected character '" + (char) c + "'");
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException(MSG_INVALID_MATRIX + ": number is out of int range");
+            }
+            return (int) value;
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++] & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package cc.graph;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Stack;
+
+/**
+ * D* Lite incremental planner for one agent on a 4-connected unit-cost {@link BitGrid}.
+ * See Koenig, Likhachev "D* Lite" (2002).
+ *
+ * The search runs backwards from the goal, so g(s) is the distance from s to the goal,
+ * and the agent can move without invalidating the search tree.
+ * When grid cells change, only the cells whose distances are affected are processed again,
+ * so a small map change costs work proportional to the affected region instead of a full re-search.
+ *
+ * Keys are pairs [min(g, rhs) + h(start, s) + km; min(g, rhs)], h - Manhattan distance,
+ * km - accumulated heuristic shift of agent moves.
+ *
+ * The planner listens to grid changes, call {@link #close()} when it is no longer needed.
+ * An instance is not thread-safe.
+ */
+public class DStarLite implements BitGrid.CellListener, AutoCloseable {
+
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int[][] MOVE = new int[][]{
+            {-1, 0}, {0, -1}, {+1, 0}, {0, +1}
+    };
+
+    private final BitGrid grid;
+    private final int m;
+    private final int n;
+    private final int goal;
+    private final int[] g;
+    private final int[] rhs;
+    private final IndexedMinHeap openList;
+
+    private int start;
+    private int km;
+    // cells changed since the last query
+    private int[] changed = new int[16];
+    private int changedCount;
+
+    public DStarLite(BitGrid grid, Point start, Point goal) {
+        if (grid == null || !inside(grid, start) || !inside(grid, goal)) {
+            throw new IllegalArgumentException(BitGrid.MSG_INVALID_GRID);
+        }
+        this.grid = grid;
+        this.m = grid.rows();
+        this.n = grid.cols();
+        this.start = start.x * n + start.y;
+        this.goal = goal.x * n + goal.y;
+        this.g = new int[m * n];
+        this.rhs = new int[m * n];
+        this.openList = new IndexedMinHeap(m * n, true);
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+
+        rhs[this.goal] = 0;
+        openList.push(this.goal, heuristic(this.start, this.goal), 0);
+        grid.addListener(this);
+    }
+
+    /**
+     * Moves the agent, e.g. to the next step of the previously returned path.
+     */
+    public void moveTo(Point cell) {
+        if (!inside(grid, cell)) {
+            throw new IllegalArgumentException("Cell is out of grid: " + cell);
+        }
+        int next = cell.x * n + cell.y;
+        km += heuristic(start, next);
+        start = next;
+    }
+
+    /**
+     * Repairs the search after grid changes and returns a shortest path from the agent to the goal
+     * in the same form as {@link AStar#findPath(Point, Point)}.
+     */
+    public Stack<Point> findPath() {
+        Stack<Point> result = new Stack<>();
+        processChanges();
+        if (start == goal || !grid.isFree(start / n, start % n) || !grid.isFree(goal / n, goal % n)) {
+            return result;
+        }
+        computeShortestPath();
+        if (g[start] == INF) {
+            return result;
+        }
+
+        // follow the steepest descent of g from the agent to the goal
+        int[] path = new int[g[start]];
+        int length = 0;
+        int s = start;
+        while (s != goal) {
+            int best = -1;
+            for (int[] move : MOVE) {
+                int x = s / n + move[0];
+                int y = s % n + move[1];
+                if (grid.isFree(x, y) && g[x * n + y] != INF && (best == -1 || g[x * n + y] < g[best])) {
+                    best = x * n + y;
+                }
+            }
+            if (best == -1 || length == m * n) {
+                return result;
+            }
+            if (length == path.length) {
+                path = Arrays.copyOf(path, length * 2);
+            }
+            path[length++] = best;
+            s = best;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            result.push(new Point(path[i] / n, path[i] % n));
+        }
+        return result;
+    }
+
+    @Override
+    public void cellChanged(int x, int y, boolean free) {
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, changedCount * 2);
+        }
+        changed[changedCount++] = x * n + y;
+    }
+
+    @Override
+    public void close() {
+        grid.removeListener(this);
+    }
+
+    private void processChanges() {
+        for (int i = 0; i < changedCount; i++) {
+            // edges to and from the cell changed its cost
+            int u = changed[i];
+            updateVertex(u);
+            for (int[] move : MOVE) {
+                int x = u / n + move[0];
+                int y = u % n + move[1];
+                if (x >= 0 && x < m && y >= 0 && y < n) {
+                    updateVertex(x * n + y);
+                }
+            }
+        }
+        changedCount = 0;
+    }
+
+    private void computeShortestPath() {
+        while (!openList.isEmpty()
+                && (less(openList.peekKey(), openList.secondaryKey(openList.peek()), key1(start), key2(start))
+                || rhs[start] != g[start])) {
+            int u = openList.peek();
+            double oldKey1 = openList.peekKey();
+            double oldKey2 = openList.secondaryKey(u);
+            if (less(oldKey1, oldKey2, key1(u), key2(u))) {
+                openList.push(u, key1(u), key2(u));
+            } else if (g[u] > rhs[u]) {
+                openList.poll();
+                g[u] = rhs[u];
+                updateNeighbors(u);
+            } else {
+                openList.poll();
+                g[u] = INF;
+                updateVertex(u);
+                updateNeighbors(u);
+            }
+        }
+    }
+
+    private void updateNeighbors(int u) {
+        for (int[] move : MOVE) {
+            int x = u / n + move[0];
+            int y = u % n + move[1];
+            if (x >= 0 && x < m && y >= 0 && y < n) {
+                updateVertex(x * n + y);
+            }
+        }
+    }
+
+    private void updateVertex(int u) {
+        if (u != goal) {
+            int best = INF;
+            if (grid.isFree(u / n, u % n)) {
+                for (int[] move : MOVE) {
+                    int x = u / n + move[0];
+                    int y = u % n + move[1];
+                    if (grid.isFree(x, y) && g[x * n + y] != INF) {
+                        best = Math.min(best, g[x * n + y] + 1);
+                    }
+                }
+            }
+            rhs[u] = best;
+        }
+        if (g[u] != rhs[u]) {
+            openList.push(u, key1(u), key2(u));
+        } else {
+            openList.remove(u);
+        }
+    }
+
+    private double key1(int s) {
+        int min = Math.min(g[s], rhs[s]);
+        return min == INF ? Double.POSITIVE_INFINITY : (double) min + heuristic(start, s) + km;
+    }
+
+    private double key2(int s) {
+        int min = Math.min(g[s], rhs[s]);
+        return min == INF ? Double.POSITIVE_INFINITY : min;
+    }
+
+    private static boolean less(double a1, double a2, double b1, double b2) {
+        return a1 < b1 || (a1 == b1 && a2 < b2);
+    }
+
+    private int heuristic(int a, int b) {
+        return Math.abs(a / n - b / n) + Math.abs(a % n - b % n);
+    }
+
+    private static boolean inside(BitGrid grid, Point cell) {
+        return cell != null && cell.x >= 0 && cell.x < grid.rows() && cell.y >= 0 && cell.y < grid.cols();
+    }
+}
@@ -0,0 +1,434 @@
+package cc.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Minimum cost assignment which is kept optimal while rows and columns change,
+ * e.g. workers (rows) and jobs (columns) of a dispatcher.
+ *
+ * Keeps the matching and the dual potentials u, v of {@link HungarianAlgorithm.Method#POTENTIALS}:
+ * reduced costs c[i][j] - u[i] - v[j] are non-negative and zero on matched cells.
+ * A change of one row or column breaks this only for that line, so the line is unmatched,
+ * and the optimum is repaired by a single shortest augmenting path, O(n^2), instead of a full O(n^3) solve.
+ *
+ * Rows and columns may differ in number: the matrix is kept square, max(rows, columns), by dummy rows
+ * or dummy columns of zero cost, a real row matched to a dummy column is unassigned.
+ * Slots of removed rows and columns are kept as dummies or as dead pairs outside of the matrix
+ * and reused by later insertions, ids of other rows and columns never change.
+ *
+ * Not thread-safe.
+ */
+public class DynamicAssignment {
+
+    public static final int NONE = -1;
+
+    private static final long INF = Long.MAX_VALUE;
+    private static final byte DEAD = 0;
+    private static final byte DUMMY = 1;
+    private static final byte REAL = 2;
+
+    private int n; // slots of rows and of columns, including dead ones
+    private long[][] cost = new long[0][];
+    private long[] u = new long[0];
+    private long[] v = new long[0];
+    private int[] rowToCol = new int[0];
+    private int[] colToRow = new int[0];
+    private byte[] rowKind = new byte[0];
+    private byte[] colKind = new byte[0];
+    // never both non-empty: a dummy row and a dummy column are turned into a dead pair at once
+    private final Deque<Integer> dummyRows = new ArrayDeque<>();
+    private final Deque<Integer> dummyCols = new ArrayDeque<>();
+    // dead rows, each one is matched to a dead column
+    private final Deque<Integer> deadRows = new ArrayDeque<>();
+    private int rows;
+    private int cols;
+
+    // scratch of an augmentation, index n is a virtual column
+    private long[] minv = new long[1];
+    private int[] way = new int[1];
+    private boolean[] used = new boolean[1];
+    private long augmentations;
+
+    /**
+     * Solves a rows x cols matrix, rows may differ from cols.
+     */
+    public DynamicAssignment(long[][] costs) {
+        int rows = costs.length;
+        int cols = rows == 0 ? 0 : costs[0].length;
+        grow(Math.max(rows, cols));
+        for (int i = 0; i < n; i++) {
+            if (i < rows && costs[i].length != cols) {
+                throw new IllegalArgumentException("Cost matrix is not rectangular");
+            }
+            rowKind[i] = i < rows ? REAL : DUMMY;
+            colKind[i] = i < cols ? REAL : DUMMY;
+            for (int j = 0; j < n; j++) {
+                cost[i][j] = i < rows && j < cols ? costs[i][j] : 0;
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            if (rowKind[i] == DUMMY) {
+                dummyRows.push(i);
+            }
+            if (colKind[i] == DUMMY) {
+                dummyCols.push(i);
+            }
+        }
+        this.rows = rows;
+        this.cols = cols;
+        for (int i = 0; i < n; i++) {
+            augment(i);
+        }
+    }
+
+    /**
+     * Adds a row with given cost of every column id, returns the id of the row. O(n^2).
+     */
+    public int addRow(IntToLongFunction costOfCol) {
+        rows++;
+        if (!dummyRows.isEmpty()) {
+            int row = dummyRows.pop();
+            rowKind[row] = REAL;
+            updateRow(row, costOfCol);
+            return row;
+        }
+        // one more slot: the new row with a dummy column
+        int row = newPair();
+        int col = rowToCol[row];
+        rowKind[row] = REAL;
+        colKind[col] = DUMMY;
+        dummyCols.push(col);
+        for (int i = 0; i < n; i++) {
+            cost[i][col] = 0;
+        }
+        for (int j = 0; j < n; j++) {
+            cost[row][j] = colKind[j] == REAL ? costOfCol.applyAsLong(j) : 0;
+        }
+        activate(row, col);
+        return row;
+    }
+
+    /**
+     * Adds a column with given cost of every row id, returns the id of the column. O(n^2).
+     */
+    public int addColumn(IntToLongFunction costOfRow) {
+        cols++;
+        if (!dummyCols.isEmpty()) {
+            int col = dummyCols.pop();
+            colKind[col] = REAL;
+            updateColumn(col, costOfRow);
+            return col;
+        }
+        // one more slot: the new column with a dummy row
+        int row = newPair();
+        int col = rowToCol[row];
+        rowKind[row] = DUMMY;
+        colKind[col] = REAL;
+        dummyRows.push(row);
+        Arrays.fill(cost[row], 0, n, 0);
+        for (int i = 0; i < n; i++) {
+            cost[i][col] = rowKind[i] == REAL ? costOfRow.applyAsLong(i) : 0;
+        }
+        activate(row, col);
+        return col;
+    }
+
+    /**
+     * Replaces costs of a row, e.g. when a worker moves. O(n^2).
+     */
+    public void updateRow(int row, IntToLongFunction costOfCol) {
+        checkRow(row);
+        for (int j = 0; j < n; j++) {
+            cost[row][j] = colKind[j] == REAL ? costOfCol.applyAsLong(j) : 0;
+        }
+        repairRow(row);
+    }
+
+    /**
+     * Replaces costs of a column, e.g. when a job changes. O(n^2).
+     */
+    public void updateColumn(int col, IntToLongFunction costOfRow) {
+        checkCol(col);
+        for (int i = 0; i < n; i++) {
+            cost[i][col] = rowKind[i] == REAL ? costOfRow.applyAsLong(i) : 0;
+        }
+        repairColumn(col);
+    }
+
+    public void setCost(int row, int col, long value) {
+        checkRow(row);
+        checkCol(col);
+        cost[row][col] = value;
+        repairRow(row);
+    }
+
+    public void removeRow(int row) {
+        checkRow(row);
+        rows--;
+        if (!dummyCols.isEmpty()) {
+            kill(row, dummyCols.pop());
+        } else {
+            rowKind[row] = DUMMY;
+            dummyRows.push(row);
+            for (int j = 0; j < n; j++) {
+                cost[row][j] = 0;
+            }
+            repairRow(row);
+        }
+    }
+
+    public void removeColumn(int col) {
+        checkCol(col);
+        cols--;
+        if (!dummyRows.isEmpty()) {
+            kill(dummyRows.pop(), col);
+        } else {
+            colKind[col] = DUMMY;
+            dummyCols.push(col);
+            for (int i = 0; i < n; i++) {
+                cost[i][col] = 0;
+            }
+            repairColumn(col);
+        }
+    }
+
+    /**
+     * Column assigned to the row, {@link #NONE} if the row is left unassigned (more rows than columns).
+     */
+    public int columnOf(int row) {
+        checkRow(row);
+        int col = rowToCol[row];
+        return colKind[col] == REAL ? col : NONE;
+    }
+
+    /**
+     * Row assigned to the column, {@link #NONE} if the column is left unassigned (more columns than rows).
+     */
+    public int rowOf(int col) {
+        checkCol(col);
+        int row = colToRow[col];
+        return rowKind[row] == REAL ? row : NONE;
+    }
+
+    public long cost(int row, int col) {
+        checkRow(row);
+        checkCol(col);
+        return cost[row][col];
+    }
+
+    /**
+     * Sum of costs of assigned rows.
+     */
+    public long totalCost() {
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            if (rowKind[i] == REAL && colKind[rowToCol[i]] == REAL) {
+                total += cost[i][rowToCol[i]];
+            }
+        }
+        return total;
+    }
+
+    public boolean isRow(int row) {
+        return row >= 0 && row < n && rowKind[row] == REAL;
+    }
+
+    public boolean isColumn(int col) {
+        return col >= 0 && col < n && colKind[col] == REAL;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return cols;
+    }
+
+    /**
+     * Number of shortest augmenting paths run so far, at most one per change.
+     */
+    public long augmentations() {
+        return augmentations;
+    }
+
+    private void repairRow(int row) {
+        // other rows are untouched, the freed column keeps its potential
+        int col = rowToCol[row];
+        rowToCol[row] = NONE;
+        colToRow[col] = NONE;
+        augment(row);
+    }
+
+    private void repairColumn(int col) {
+        int row = colToRow[col];
+        rowToCol[row] = NONE;
+        colToRow[col] = NONE;
+        resetPotential(col, row);
+        augment(row);
+    }
+
+    /**
+     * Moves a dummy / removed row and a dummy / removed column out of the matrix as a dead pair,
+     * their partners are matched to each other by one augmentation.
+     */
+    private void kill(int row, int col) {
+        int partnerCol = rowToCol[row];
+        int partnerRow = colToRow[col];
+        rowKind[row] = DEAD;
+        colKind[col] = DEAD;
+        rowToCol[row] = col;
+        colToRow[col] = row;
+        deadRows.push(row);
+        if (partnerCol != col) {
+            rowToCol[partnerRow] = NONE;
+            colToRow[partnerCol] = NONE;
+            augment(partnerRow);
+        }
+    }
+
+    /**
+     * Returns a dead row matched to a dead column, adding a slot if there is none.
+     */
+    private int newPair() {
+        if (deadRows.isEmpty()) {
+            grow(n + 1);
+            int k = n - 1;
+            rowKind[k] = DEAD;
+            colKind[k] = DEAD;
+            rowToCol[k] = k;
+            colToRow[k] = k;
+            deadRows.push(k);
+        }
+        return deadRows.pop();
+    }
+
+    /**
+     * Brings a dead pair with new costs into the matrix: both are free, the row is matched by one augmentation.
+     */
+    private void activate(int row, int col) {
+        rowToCol[row] = NONE;
+        colToRow[col] = NONE;
+        u[row] = 0;
+        resetPotential(col, row);
+        augment(row);
+    }
+
+    /**
+     * Sets the potential of a free column to the largest one keeping reduced costs of matched rows non-negative.
+     */
+    private void resetPotential(int col, int freeRow) {
+        long min = INF;
+        for (int i = 0; i < n; i++) {
+            if (i != freeRow && rowKind[i] != DEAD) {
+                min = Math.min(min, cost[i][col] - u[i]);
+            }
+        }
+        v[col] = min == INF ? 0 : min;
+    }
+
+    /**
+     * Matches a free row along the shortest augmenting path in reduced costs, as in
+     * {@link HungarianAlgorithm.Method#POTENTIALS}; index n is a virtual column holding the row.
+     * Reduced costs of matched rows must be non-negative, the free row may start with any potential.
+     */
+    private void augment(int row) {
+        augmentations++;
+        int virtual = n;
+        Arrays.fill(minv, 0, n + 1, INF);
+        for (int j = 0; j < n; j++) {
+            used[j] = colKind[j] == DEAD;
+        }
+        int j0 = virtual;
+        do {
+            used[j0] = true;
+            int i0 = j0 == virtual ? row : colToRow[j0];
+            long[] costs = cost[i0];
+            long delta = INF;
+            int j1 = NONE;
+            for (int j = 0; j < n; j++) {
+                if (used[j]) {
+                    continue;
+                }
+                long reduced = costs[j] - u[i0] - v[j];
+                if (reduced < minv[j]) {
+                    minv[j] = reduced;
+                    way[j] = j0;
+                }
+                if (minv[j] < delta) {
+                    delta = minv[j];
+                    j1 = j;
+                }
+            }
+            for (int j = 0; j < n; j++) {
+                if (colKind[j] == DEAD) {
+                    continue;
+                }
+                if (used[j]) {
+                    u[colToRow[j]] += delta;
+                    v[j] -= delta;
+                } else {
+                    minv[j] -= delta;
+                }
+            }
+            u[row] += delta;
+            j0 = j1;
+        } while (colToRow[j0] != NONE);
+        // flip the augmenting path
+        while (j0 != virtual) {
+            int j1 = way[j0];
+            int i = j1 == virtual ? row : colToRow[j1];
+            colToRow[j0] = i;
+            rowToCol[i] = j0;
+            j0 = j1;
+        }
+    }
+
+    /**
+     * Adds slots up to size with zero costs and potentials, the new rows and columns are free.
+     */
+    private void grow(int size) {
+        if (size > cost.length) {
+            int capacity = Math.max(size, cost.length * 2);
+            cost = Arrays.copyOf(cost, capacity);
+            for (int i = 0; i < capacity; i++) {
+                cost[i] = cost[i] == null ? new long[capacity] : Arrays.copyOf(cost[i], capacity);
+            }
+            u = Arrays.copyOf(u, capacity);
+            v = Arrays.copyOf(v, capacity);
+            rowToCol = Arrays.copyOf(rowToCol, capacity);
+            colToRow = Arrays.copyOf(colToRow, capacity);
+            rowKind = Arrays.copyOf(rowKind, capacity);
+            colKind = Arrays.copyOf(colKind, capacity);
+            minv = new long[capacity + 1];
+            way = new int[capacity + 1];
+            used = new boolean[capacity + 1];
+        }
+        for (int k = n; k < size; k++) {
+            Arrays.fill(cost[k], 0);
+            for (int i = 0; i < size; i++) {
+                cost[i][k] = 0;
+            }
+            u[k] = 0;
+            v[k] = 0;
+            rowToCol[k] = NONE;
+            colToRow[k] = NONE;
+        }
+        n = size;
+    }
+
+    private void checkRow(int row) {
+        if (!isRow(row)) {
+            throw new IllegalArgumentException("No row " + row);
+        }
+    }
+
+    private void checkCol(int col) {
+        if (!isColumn(col)) {
+            throw new IllegalArgumentException("No column " + col);
+        }
+    }
+}
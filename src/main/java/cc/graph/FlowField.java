@@ -0,0 +1,173 @@
+package cc.graph;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * One-to-all distance field and direction field towards a single target.
+ * Built once by a search backwards from the target over the whole grid:
+ *   - BFS for unit-cost {@link BitGrid};
+ *   - Dijkstra with a {@link BucketQueue} for {@link WeightedGrid}.
+ * Then any number of agents route to the target with an O(1) lookup per step.
+ *
+ * Memory: int distance + byte direction per cell. An instance is immutable and thread-safe.
+ */
+public class FlowField {
+
+    public static final int UNREACHABLE = -1;
+    public static final int NONE = -1;
+
+    private static final int[][] MOVE = new int[][]{
+            {-1, 0}, {0, -1}, {+1, 0}, {0, +1}
+    };
+
+    private final int m;
+    private final int n;
+    private final int target;
+    private final int[] distance;  // cell id -> cost to reach target, UNREACHABLE if none
+    private final byte[] direction; // cell id -> MOVE index of the next step, NONE at target / unreachable
+
+    private FlowField(int m, int n, int target) {
+        this.m = m;
+        this.n = n;
+        this.target = target;
+        this.distance = new int[m * n];
+        this.direction = new byte[m * n];
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(direction, (byte) NONE);
+    }
+
+    /**
+     * BFS from target, O(M * N).
+     */
+    public static FlowField of(BitGrid grid, Point target) {
+        int m = grid.rows();
+        int n = grid.cols();
+        checkTarget(target, m, n);
+        FlowField field = new FlowField(m, n, target.x * n + target.y);
+        if (!grid.isFree(target.x, target.y)) {
+            return field;
+        }
+        int[] queue = new int[m * n];
+        int head = 0;
+        int tail = 0;
+        field.distance[field.target] = 0;
+        queue[tail++] = field.target;
+        while (head < tail) {
+            int v = queue[head++];
+            int vx = v / n;
+            int vy = v % n;
+            for (int k = 0; k < MOVE.length; k++) {
+                int x = vx + MOVE[k][0];
+                int y = vy + MOVE[k][1];
+                if (grid.isFree(x, y) && field.distance[x * n + y] == UNREACHABLE) {
+                    int u = x * n + y;
+                    field.distance[u] = field.distance[v] + 1;
+                    field.direction[u] = (byte) opposite(k);
+                    queue[tail++] = u;
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Dijkstra from target, moving into a cell costs {@link WeightedGrid#cost(int, int)} of that cell.
+     * Distances are int, grids where cells * maxCost could overflow are rejected.
+     */
+    public static FlowField of(WeightedGrid grid, Point target) {
+        int m = grid.rows();
+        int n = grid.cols();
+        checkTarget(target, m, n);
+        if (!grid.fitsIntPathCosts()) {
+            throw new IllegalArgumentException("Path costs of the grid overflow int");
+        }
+        FlowField field = new FlowField(m, n, target.x * n + target.y);
+        if (!grid.isFree(target.x, target.y)) {
+            return field;
+        }
+        BucketQueue queue = new BucketQueue(m * n, grid.maxCost());
+        boolean[] done = new boolean[m * n];
+        field.distance[field.target] = 0;
+        queue.push(field.target, 0);
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            done[v] = true;
+            int vx = v / n;
+            int vy = v % n;
+            // an agent in u pays for entering v
+            int step = grid.cost(vx, vy);
+            for (int k = 0; k < MOVE.length; k++) {
+                int x = vx + MOVE[k][0];
+                int y = vy + MOVE[k][1];
+                if (!grid.isFree(x, y)) {
+                    continue;
+                }
+                int u = x * n + y;
+                int d = field.distance[v] + step;
+                if (!done[u] && (field.distance[u] == UNREACHABLE || d < field.distance[u])) {
+                    field.distance[u] = d;
+                    field.direction[u] = (byte) opposite(k);
+                    queue.push(u, d);
+                }
+            }
+        }
+        return field;
+    }
+
+    public Point target() {
+        return new Point(target / n, target % n);
+    }
+
+    /**
+     * Cost of the cheapest path from the cell to target, or {@link #UNREACHABLE}.
+     */
+    public int distance(int x, int y) {
+        return inside(x, y) ? distance[x * n + y] : UNREACHABLE;
+    }
+
+    /**
+     * Cell id (x * cols + y) of the next step towards target, or {@link #NONE} at target / when unreachable.
+     */
+    public int next(int x, int y) {
+        if (!inside(x, y)) {
+            return NONE;
+        }
+        int k = direction[x * n + y];
+        return k == NONE ? NONE : (x + MOVE[k][0]) * n + y + MOVE[k][1];
+    }
+
+    /**
+     * Follows the field from the cell to target.
+     */
+    public GridPath path(Point from) {
+        if (from == null || !inside(from.x, from.y) || distance[from.x * n + from.y] <= 0) {
+            return GridPath.empty(n);
+        }
+        int length = 1;
+        for (int id = from.x * n + from.y; id != target; id = next(id / n, id % n)) {
+            length++;
+        }
+        int[] cells = new int[length];
+        int id = from.x * n + from.y;
+        for (int i = 0; i < length; i++) {
+            cells[i] = id;
+            id = next(id / n, id % n);
+        }
+        return new GridPath(n, cells);
+    }
+
+    private boolean inside(int x, int y) {
+        return x >= 0 && x < m && y >= 0 && y < n;
+    }
+
+    private static int opposite(int k) {
+        return (k + 2) % MOVE.length;
+    }
+
+    private static void checkTarget(Point target, int m, int n) {
+        if (target == null || target.x < 0 || target.x >= m || target.y < 0 || target.y >= n) {
+            throw new IllegalArgumentException("Target is out of grid: " + target);
+        }
+    }
+}
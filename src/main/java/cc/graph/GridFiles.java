@@ -0,0 +1,161 @@
+package cc.graph;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Loaders of {@link BitGrid} maps which never materialize a char matrix.
+ *
+ * Text format: one line per row of '-' (empty) and '#' (obstacle) cells, the map ends
+ * with the end of input or with an empty line (anything after it is ignored).
+ *
+ * Binary format (little-endian):
+ *   int magic "GRD1", int rows, int cols, then rows * ceil(cols / 64) longs of row-aligned bits.
+ * It is the in-memory layout of {@link BitGrid}, so loading is a memory-mapped bulk copy.
+ */
+public class GridFiles {
+
+    static final int MAGIC = 0x31445247; // "GRD1"
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+    // mapped chunk size, must be a multiple of Long.BYTES
+    private static final long MAX_CHUNK = 1L << 30;
+
+    private GridFiles() {
+    }
+
+    public static BitGrid readText(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return readText(in);
+        }
+    }
+
+    /**
+     * Streams text map bytes straight into the bitset.
+     */
+    public static BitGrid readText(InputStream input) throws IOException {
+        InputStream in = input instanceof BufferedInputStream ? input : new BufferedInputStream(input, BUFFER_SIZE);
+        int cols = -1;
+        int wordsPerRow = 0;
+        int rows = 0;
+        int col = 0;
+        long[] bits = new long[64];
+        boolean done = false;
+        int c;
+        while (!done && (c = in.read()) != -1) {
+            switch (c) {
+                case '\r' -> {
+                }
+                case '\n' -> {
+                    if (col == 0) {
+                        done = true; // empty line ends the map
+                    } else {
+                        if (cols == -1) {
+                            cols = col;
+                        } else if (col != cols) {
+                            throw new IOException(BitGrid.MSG_INVALID_GRID + ": row " + rows + " has " + col + " cells");
+                        }
+                        rows++;
+                        col = 0;
+                    }
+                }
+                case BitGrid.EMPTY, BitGrid.OBSTACLE -> {
+                    if (cols != -1 && col >= cols) {
+                        throw new IOException(BitGrid.MSG_INVALID_GRID + ": row " + rows + " is too long");
+                    }
+                    if (c == BitGrid.EMPTY) {
+                        // until the first row is complete, rows are laid out as one long row
+                        int index = cols == -1 ? col >>> 6 : rows * wordsPerRow + (col >>> 6);
+                        if (index >= bits.length) {
+                            bits = Arrays.copyOf(bits, Math.max(bits.length * 2, index + 1));
+                        }
+                        bits[index] |= 1L << col;
+                    }
+                    col++;
+                }
+                default -> throw new IOException(BitGrid.MSG_INVALID_GRID + ": unexpected character '" + (char) c + "'");
+            }
+            if (cols != -1 && wordsPerRow == 0) {
+                wordsPerRow = BitGrid.wordsPerRow(cols);
+            }
+        }
+        if (col > 0) { // last line without line break
+            if (cols == -1) {
+                cols = col;
+                wordsPerRow = BitGrid.wordsPerRow(cols);
+            } else if (col != cols) {
+                throw new IOException(BitGrid.MSG_INVALID_GRID + ": row " + rows + " has " + col + " cells");
+            }
+            rows++;
+        }
+        if (rows == 0) {
+            throw new IOException(BitGrid.MSG_INVALID_GRID + ": no rows");
+        }
+        return new BitGrid(rows, cols, Arrays.copyOf(bits, rows * wordsPerRow));
+    }
+
+    public static void writeBinary(BitGrid grid, Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(grid.rows()).putInt(grid.cols());
+            for (long word : grid.bits()) {
+                if (buffer.remaining() < Long.BYTES) {
+                    out.write(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+                buffer.putLong(word);
+            }
+            out.write(buffer.array(), 0, buffer.position());
+        }
+    }
+
+    /**
+     * Memory-maps a binary map file and bulk-copies its bits into a grid.
+     */
+    public static BitGrid mapBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(BitGrid.MSG_INVALID_GRID + ": truncated header");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(BitGrid.MSG_INVALID_GRID + ": bad magic");
+            }
+            int rows = header.getInt();
+            int cols = header.getInt();
+            if (rows <= 0 || cols <= 0) {
+                throw new IOException(BitGrid.MSG_INVALID_GRID + ": bad size " + rows + " x " + cols);
+            }
+            long words = (long) rows * BitGrid.wordsPerRow(cols);
+            if (channel.size() != HEADER_BYTES + words * Long.BYTES) {
+                throw new IOException(BitGrid.MSG_INVALID_GRID + ": unexpected file size");
+            }
+            long[] bits = new long[Math.toIntExact(words)];
+            int copied = 0;
+            long offset = HEADER_BYTES;
+            while (copied < bits.length) {
+                long chunk = Math.min(MAX_CHUNK, (long) (bits.length - copied) * Long.BYTES);
+                LongBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, chunk)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asLongBuffer();
+                int count = mapped.remaining();
+                mapped.get(bits, copied, count);
+                copied += count;
+                offset += chunk;
+            }
+            return new BitGrid(rows, cols, bits);
+        }
+    }
+}
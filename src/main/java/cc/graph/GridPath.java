@@ -0,0 +1,137 @@
+package cc.graph;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Stack;
+
+/**
+ * Immutable grid path packed into an int[] of cell ids (x * cols + y), from source to target inclusive.
+ * One array per path instead of a boxed {@link Point} per step,
+ * so paths are cheap to keep, pass between threads and serialize.
+ */
+public final class GridPath {
+
+    private static final int[] NO_CELLS = new int[0];
+
+    private final int cols;
+    private final int[] cells;
+
+    /**
+     * @param cols  number of grid columns, used to decode cell ids
+     * @param cells cell ids from source to target, the array is not copied
+     */
+    GridPath(int cols, int[] cells) {
+        this.cols = cols;
+        this.cells = cells;
+    }
+
+    /**
+     * Path that was not found.
+     */
+    public static GridPath empty(int cols) {
+        return new GridPath(cols, NO_CELLS);
+    }
+
+    public static GridPath of(int cols, int[] cells) {
+        return new GridPath(cols, cells.clone());
+    }
+
+    public boolean isEmpty() {
+        return cells.length == 0;
+    }
+
+    /**
+     * Number of moves, 0 for an empty path.
+     */
+    public int steps() {
+        return Math.max(0, cells.length - 1);
+    }
+
+    /**
+     * Number of cells, including source and target.
+     */
+    public int size() {
+        return cells.length;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int cell(int i) {
+        return cells[i];
+    }
+
+    public int x(int i) {
+        return cells[i] / cols;
+    }
+
+    public int y(int i) {
+        return cells[i] % cols;
+    }
+
+    public int[] toArray() {
+        return cells.clone();
+    }
+
+    /**
+     * Iterates cell ids from source to target without boxing.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < cells.length;
+            }
+
+            @Override
+            public int nextInt() {
+                if (i == cells.length) {
+                    throw new NoSuchElementException();
+                }
+                return cells[i++];
+            }
+        };
+    }
+
+    /**
+     * Converts to the form of {@link AStar#findPath(Point, Point)}:
+     * the top of the stack is the first step after source, the bottom is target.
+     */
+    public Stack<Point> toStack() {
+        Stack<Point> result = new Stack<>();
+        for (int i = cells.length - 1; i > 0; i--) {
+            result.push(new Point(x(i), y(i)));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof GridPath path)) {
+            return false;
+        }
+        return cols == path.cols && Arrays.equals(cells, path.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * cols + Arrays.hashCode(cells);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("GridPath[");
+        for (int i = 0; i < cells.length; i++) {
+            builder.append(i == 0 ? "" : " -> ").append('(').append(x(i)).append(", ").append(y(i)).append(')');
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,495 @@
+package cc.graph;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Stack;
+
+/**
+ * Hierarchical path-finding A* (HPA*) on top of {@link AStar} grid model.
+ *
+ * Preprocessing (once per grid):
+ *   1. the grid is split into square clusters of size x size cells;
+ *   2. on each border of 2 adjacent clusters maximal runs of cells, empty on both sides, are found;
+ *      a run gets 1 transition in its middle, or 2 transitions at its ends if it is 6+ cells long.
+ *      Both cells of a transition become entrances of their clusters, connected by an edge of cost 1;
+ *   3. distances between entrances of the same cluster are found by BFS inside the cluster.
+ *
+ * Query: source and target are connected to entrances of their clusters, A* runs on the small abstract graph,
+ * then only the abstract edges of the found path are refined into cells by BFS inside a single cluster.
+ * Paths are near-optimal (typically within a few percent of the shortest).
+ * Every border run has a transition, so the abstract graph keeps the connectivity of the grid:
+ * when it has no path, the target is unreachable and the query returns an empty path
+ * after searching the abstract graph only, never the whole grid.
+ *
+ * The planner listens to grid changes: on the next query it rebuilds only the changed clusters and their neighbors,
+ * each of them once however many of its cells changed. Call {@link #close()} when it is no longer needed.
+ * An instance is not thread-safe.
+ */
+public class HierarchicalAStar implements BitGrid.CellListener, AutoCloseable {
+
+    private static final int UNREACHABLE = -1;
+    private static final int LONG_RUN = 6;
+    private static final int[][] MOVE = new int[][]{
+            {-1, 0}, {0, -1}, {+1, 0}, {0, +1}
+    };
+
+    private final BitGrid grid;
+    private final int m;
+    private final int n;
+    private final int size;
+    private final int clusterRows;
+    private final int clusterCols;
+
+    // transitions on the border below cluster (r, c) - cells of its last row
+    private final int[][] rowBorders;
+    // transitions on the border right of cluster (r, c) - cells of its last column
+    private final int[][] colBorders;
+    // cluster -> sorted entrance cell ids
+    private final int[][] entrances;
+    // cluster -> k x k distances between its entrances
+    private final int[][] distances;
+
+    // abstract node numbering: node = offsets[cluster] + entrance index, followed by source and target nodes
+    private final int[] offsets;
+    private int[] nodeCluster;
+    private int nodeCount;
+    private SearchContext abstractContext;
+
+    // clusters with cells changed since the last query, and clusters to rebuild for them
+    private final BitSet changedClusters;
+    private final BitSet staleClusters;
+
+    // scratch of BFS inside a single cluster
+    private final int[] bfsDistance;
+    private final int[] bfsParent;
+    private final int[] bfsQueue;
+    // scratch of building borders and clusters: transitions of a border, entrances of a cluster
+    private final int[] transitionBuffer;
+    private final int[] entranceBuffer;
+    // scratch of queries: abstract path cells from target to source, refined path cells from target to source
+    private int[] abstractCells = new int[16];
+    private int[] pathCells = new int[16];
+
+    public HierarchicalAStar(BitGrid grid, int clusterSize) {
+        if (grid == null || clusterSize < 2) {
+            throw new IllegalArgumentException("Invalid grid or cluster size");
+        }
+        this.grid = grid;
+        this.m = grid.rows();
+        this.n = grid.cols();
+        this.size = clusterSize;
+        this.clusterRows = (m + size - 1) / size;
+        this.clusterCols = (n + size - 1) / size;
+        int clusters = clusterRows * clusterCols;
+        this.rowBorders = new int[clusters][];
+        this.colBorders = new int[clusters][];
+        this.entrances = new int[clusters][];
+        this.distances = new int[clusters][];
+        this.offsets = new int[clusters];
+        this.bfsDistance = new int[size * size];
+        this.bfsParent = new int[size * size];
+        this.bfsQueue = new int[size * size];
+        // runs of a border are separated by blocked cells, so a border of size cells has at most size + 1 transitions
+        this.transitionBuffer = new int[size + 1];
+        this.entranceBuffer = new int[4 * (size + 1)];
+        this.changedClusters = new BitSet(clusters);
+        this.staleClusters = new BitSet(clusters);
+
+        for (int r = 0; r < clusterRows; r++) {
+            for (int c = 0; c < clusterCols; c++) {
+                buildBorders(r, c);
+            }
+        }
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            buildCluster(cluster);
+        }
+        numberNodes();
+        grid.addListener(this);
+    }
+
+    public int clusterSize() {
+        return size;
+    }
+
+    /**
+     * Number of entrances in the abstract graph.
+     */
+    public int abstractNodeCount() {
+        processChanges();
+        return nodeCount;
+    }
+
+    @Override
+    public void cellChanged(int x, int y, boolean free) {
+        changedClusters.set((x / size) * clusterCols + y / size);
+    }
+
+    @Override
+    public void close() {
+        grid.removeListener(this);
+    }
+
+    /**
+     * Updates the abstraction after cells of the grid were blocked or freed: recomputes borders
+     * of every changed cluster and entrances / distances of the cluster and its 4 neighbors.
+     */
+    private void processChanges() {
+        if (changedClusters.isEmpty()) {
+            return;
+        }
+        staleClusters.clear();
+        for (int cluster = changedClusters.nextSetBit(0); cluster >= 0; cluster = changedClusters.nextSetBit(cluster + 1)) {
+            int r = cluster / clusterCols;
+            int c = cluster % clusterCols;
+            buildBorders(r, c);
+            if (r > 0) {
+                buildBorders(r - 1, c);
+            }
+            if (c > 0) {
+                buildBorders(r, c - 1);
+            }
+            staleClusters.set(cluster);
+            if (r > 0) {
+                staleClusters.set(cluster - clusterCols);
+            }
+            if (r + 1 < clusterRows) {
+                staleClusters.set(cluster + clusterCols);
+            }
+            if (c > 0) {
+                staleClusters.set(cluster - 1);
+            }
+            if (c + 1 < clusterCols) {
+                staleClusters.set(cluster + 1);
+            }
+        }
+        changedClusters.clear();
+        for (int cluster = staleClusters.nextSetBit(0); cluster >= 0; cluster = staleClusters.nextSetBit(cluster + 1)) {
+            buildCluster(cluster);
+        }
+        numberNodes();
+    }
+
+    /**
+     * Returns path in the same form as {@link AStar#findPath(Point, Point)}:
+     * the top of the stack is the first step after source, the bottom is target.
+     */
+    public Stack<Point> findPath(Point source, Point target) {
+        Stack<Point> result = new Stack<>();
+        if (source == null || target == null || !grid.isFree(source.x, source.y)
+                || !grid.isFree(target.x, target.y) || source.equals(target)) {
+            return result;
+        }
+        processChanges();
+        int sourceCell = source.x * n + source.y;
+        int targetCell = target.x * n + target.y;
+        int cellCount = abstractPath(sourceCell, targetCell);
+        if (cellCount == 0) {
+            // unreachable, see the class doc
+            return result;
+        }
+
+        // refine abstract edges into cells, collected from target back to source
+        int pathLength = 0;
+        for (int i = 0; i + 1 < cellCount; i++) {
+            int to = abstractCells[i];
+            int from = abstractCells[i + 1];
+            if (to == from) {
+                continue;
+            }
+            if (clusterOf(to) != clusterOf(from)) {
+                pathLength = addPathCell(pathLength, to); // transition between adjacent clusters
+            } else {
+                bfs(clusterOf(from), from);
+                int local = local(to);
+                while (bfsParent[local] != local) {
+                    pathLength = addPathCell(pathLength, cellOf(clusterOf(from), local));
+                    local = bfsParent[local];
+                }
+            }
+        }
+        for (int i = 0; i < pathLength; i++) {
+            result.add(new Point(pathCells[i] / n, pathCells[i] % n));
+        }
+        return result;
+    }
+
+    private int addPathCell(int pathLength, int cell) {
+        if (pathLength == pathCells.length) {
+            pathCells = Arrays.copyOf(pathCells, pathLength * 2);
+        }
+        pathCells[pathLength] = cell;
+        return pathLength + 1;
+    }
+
+    /**
+     * A* on the abstract graph, puts cells of abstract nodes from target back to source into abstractCells
+     * and returns their number, 0 if not found.
+     */
+    private int abstractPath(int sourceCell, int targetCell) {
+        int sourceCluster = clusterOf(sourceCell);
+        int targetCluster = clusterOf(targetCell);
+        int[] sourceDistances = entranceDistances(sourceCluster, sourceCell);
+        int direct = sourceCluster == targetCluster ? bfsDistance[local(targetCell)] : UNREACHABLE;
+        int[] targetDistances = entranceDistances(targetCluster, targetCell);
+
+        int sourceNode = nodeCount;
+        int targetNode = nodeCount + 1;
+        int tx = targetCell / n;
+        int ty = targetCell % n;
+        SearchContext ctx = abstractContext;
+        ctx.reset();
+        ctx.update(sourceNode, sourceNode, 0.0);
+        ctx.openList.push(sourceNode, 0.0);
+
+        boolean found = false;
+        while (!found && !ctx.openList.isEmpty()) {
+            int p = ctx.openList.poll();
+            if (p == targetNode) {
+                found = true;
+                continue;
+            }
+            ctx.close(p);
+            double g = ctx.g(p);
+            if (p == sourceNode) {
+                for (int i = 0; i < sourceDistances.length; i++) {
+                    if (sourceDistances[i] != UNREACHABLE) {
+                        relax(ctx, p, offsets[sourceCluster] + i, g + sourceDistances[i], tx, ty, targetCell);
+                    }
+                }
+                if (direct != UNREACHABLE) {
+                    relax(ctx, p, targetNode, g + direct, tx, ty, targetCell);
+                }
+                continue;
+            }
+            int cluster = nodeCluster[p];
+            int i = p - offsets[cluster];
+            int k = entrances[cluster].length;
+            for (int j = 0; j < k; j++) {
+                int distance = distances[cluster][i * k + j];
+                if (j != i && distance != UNREACHABLE) {
+                    relax(ctx, p, offsets[cluster] + j, g + distance, tx, ty, targetCell);
+                }
+            }
+            int cell = entrances[cluster][i];
+            int x = cell / n;
+            int y = cell % n;
+            for (int[] move : MOVE) {
+                int nx = x + move[0];
+                int ny = y + move[1];
+                if (grid.isFree(nx, ny)) {
+                    int nextCluster = (nx / size) * clusterCols + ny / size;
+                    int j = nextCluster == cluster ? -1 : Arrays.binarySearch(entrances[nextCluster], nx * n + ny);
+                    if (j >= 0) {
+                        relax(ctx, p, offsets[nextCluster] + j, g + 1, tx, ty, targetCell);
+                    }
+                }
+            }
+            if (cluster == targetCluster && targetDistances[i] != UNREACHABLE) {
+                relax(ctx, p, targetNode, g + targetDistances[i], tx, ty, targetCell);
+            }
+        }
+        if (!found) {
+            return 0;
+        }
+
+        int count = 0;
+        int node = targetNode;
+        abstractCells[count++] = targetCell;
+        while (ctx.parent[node] != node) {
+            node = ctx.parent[node];
+            if (count == abstractCells.length) {
+                abstractCells = Arrays.copyOf(abstractCells, count * 2);
+            }
+            abstractCells[count++] = node == sourceNode
+                    ? sourceCell : entrances[nodeCluster[node]][node - offsets[nodeCluster[node]]];
+        }
+        return count;
+    }
+
+    private void relax(SearchContext ctx, int from, int to, double g, int tx, int ty, int targetCell) {
+        if (ctx.isClosed(to) || g >= ctx.g(to)) {
+            return;
+        }
+        int cell = to >= nodeCount ? targetCell : entrances[nodeCluster[to]][to - offsets[nodeCluster[to]]];
+        ctx.update(to, from, g);
+        ctx.openList.push(to, g + heuristic(cell / n, cell % n, tx, ty));
+    }
+
+    private static double heuristic(int x1, int y1, int x2, int y2) {
+        double deltaX = x1 - x2;
+        double deltaY = y1 - y2;
+        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    }
+
+    /**
+     * BFS from the cell inside its cluster, returns distances to the cluster entrances.
+     */
+    private int[] entranceDistances(int cluster, int cell) {
+        bfs(cluster, cell);
+        int[] result = new int[entrances[cluster].length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bfsDistance[local(entrances[cluster][i])];
+        }
+        return result;
+    }
+
+    private void buildBorders(int r, int c) {
+        int cluster = r * clusterCols + c;
+        int x0 = r * size;
+        int y0 = c * size;
+        int x1 = Math.min(x0 + size, m);
+        int y1 = Math.min(y0 + size, n);
+        int count = 0;
+        if (r + 1 < clusterRows) {
+            int x = x1 - 1;
+            int run = -1;
+            for (int y = y0; y <= y1; y++) {
+                boolean open = y < y1 && grid.isFree(x, y) && grid.isFree(x + 1, y);
+                if (open && run == -1) {
+                    run = y;
+                } else if (!open && run != -1) {
+                    count = addTransitions(count, x * n + run, x * n + y - 1, 1);
+                    run = -1;
+                }
+            }
+        }
+        rowBorders[cluster] = Arrays.copyOf(transitionBuffer, count);
+
+        count = 0;
+        if (c + 1 < clusterCols) {
+            int y = y1 - 1;
+            int run = -1;
+            for (int x = x0; x <= x1; x++) {
+                boolean open = x < x1 && grid.isFree(x, y) && grid.isFree(x, y + 1);
+                if (open && run == -1) {
+                    run = x;
+                } else if (!open && run != -1) {
+                    count = addTransitions(count, run * n + y, (x - 1) * n + y, n);
+                    run = -1;
+                }
+            }
+        }
+        colBorders[cluster] = Arrays.copyOf(transitionBuffer, count);
+    }
+
+    /**
+     * Adds transitions of a run to transitionBuffer after count ones, returns the new count.
+     */
+    private int addTransitions(int count, int first, int last, int step) {
+        int length = (last - first) / step + 1;
+        if (length >= LONG_RUN) {
+            transitionBuffer[count++] = first;
+            transitionBuffer[count++] = last;
+        } else {
+            transitionBuffer[count++] = first + (length / 2) * step;
+        }
+        return count;
+    }
+
+    private void buildCluster(int cluster) {
+        int r = cluster / clusterCols;
+        int c = cluster % clusterCols;
+        int[] cells = entranceBuffer;
+        int count = 0;
+        for (int cell : rowBorders[cluster]) {
+            cells[count++] = cell;
+        }
+        for (int cell : colBorders[cluster]) {
+            cells[count++] = cell;
+        }
+        if (r > 0) {
+            for (int cell : rowBorders[cluster - clusterCols]) {
+                cells[count++] = cell + n;
+            }
+        }
+        if (c > 0) {
+            for (int cell : colBorders[cluster - 1]) {
+                cells[count++] = cell + 1;
+            }
+        }
+        // sorted, without the corner cell taken from both borders
+        Arrays.sort(cells, 0, count);
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            if (k == 0 || cells[i] != cells[k - 1]) {
+                cells[k++] = cells[i];
+            }
+        }
+        int[] result = Arrays.copyOf(cells, k);
+        int[] distance = new int[k * k];
+        for (int i = 0; i < k; i++) {
+            bfs(cluster, result[i]);
+            for (int j = 0; j < k; j++) {
+                distance[i * k + j] = bfsDistance[local(result[j])];
+            }
+        }
+        entrances[cluster] = result;
+        distances[cluster] = distance;
+    }
+
+    private void numberNodes() {
+        int count = 0;
+        for (int cluster = 0; cluster < entrances.length; cluster++) {
+            offsets[cluster] = count;
+            count += entrances[cluster].length;
+        }
+        nodeCount = count;
+        nodeCluster = new int[count];
+        for (int cluster = 0; cluster < entrances.length; cluster++) {
+            Arrays.fill(nodeCluster, offsets[cluster], offsets[cluster] + entrances[cluster].length, cluster);
+        }
+        // source and target nodes follow the entrances
+        if (abstractContext == null || abstractContext.capacity < count + 2) {
+            abstractContext = new SearchContext(count + 2 + count / 4);
+        }
+    }
+
+    /**
+     * BFS from the cell, restricted to the cluster, fills bfsDistance / bfsParent by local index.
+     */
+    private void bfs(int cluster, int cell) {
+        int x0 = (cluster / clusterCols) * size;
+        int y0 = (cluster % clusterCols) * size;
+        int x1 = Math.min(x0 + size, m);
+        int y1 = Math.min(y0 + size, n);
+        Arrays.fill(bfsDistance, UNREACHABLE);
+        int start = local(cell);
+        bfsDistance[start] = 0;
+        bfsParent[start] = start;
+        int head = 0;
+        int tail = 0;
+        bfsQueue[tail++] = start;
+        while (head < tail) {
+            int p = bfsQueue[head++];
+            int px = x0 + p / size;
+            int py = y0 + p % size;
+            for (int[] move : MOVE) {
+                int x = px + move[0];
+                int y = py + move[1];
+                if (x >= x0 && x < x1 && y >= y0 && y < y1 && grid.isFree(x, y)) {
+                    int next = (x - x0) * size + (y - y0);
+                    if (bfsDistance[next] == UNREACHABLE) {
+                        bfsDistance[next] = bfsDistance[p] + 1;
+                        bfsParent[next] = p;
+                        bfsQueue[tail++] = next;
+                    }
+                }
+            }
+        }
+    }
+
+    private int clusterOf(int cell) {
+        return (cell / n / size) * clusterCols + (cell % n) / size;
+    }
+
+    private int local(int cell) {
+        return (cell / n % size) * size + (cell % n) % size;
+    }
+
+    private int cellOf(int cluster, int local) {
+        int x = (cluster / clusterCols) * size + local / size;
+        int y = (cluster % clusterCols) * size + local % size;
+        return x * n + y;
+    }
+}
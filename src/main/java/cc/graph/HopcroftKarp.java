@@ -0,0 +1,162 @@
+package cc.graph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hopcroft-Karp Algorithm for Maximum Bipartite Matching, a drop-in for {@link KuhnAlgorithm}:
+ * same input, same {@link KuhnAlgorithm.MaxBipartiteMatch} result.
+ * V - is a left set of vertices.
+ * W - is a right set of vertices.
+ * graph - adjacency list of "v -> w" edges.
+ *
+ * Every phase finds a maximal set of shortest vertex-disjoint augmenting paths:
+ * BFS layers the left vertices by alternating path length from the free ones, up to the first layer
+ * which has an edge to a free right vertex; then DFS augments along layered paths ending in that layer only,
+ * and takes the vertices of every found path out of the layering. There are O(sqrt(V)) phases.
+ *
+ * Edges are kept in flat arrays (an adjacency list is copied once, no boxing in the loops), DFS is iterative,
+ * and all work arrays are allocated once, so memory is O(V + W + E). As with {@link KuhnAlgorithm#setGraph(int[], int[])},
+ * a solver may be run again on another graph of the same size, reusing its work arrays and its result object.
+ *
+ * The complexity of algo: O(E * sqrt(V)).
+ */
+public class HopcroftKarp {
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final int nV, nW;
+    private int[] edgeStart;       // v -> index of its first edge, edgeStart[nV] == E
+    private int[] edges;           // edge -> w
+    private final KuhnAlgorithm.MaxBipartiteMatch result;
+
+    private final int[] matchedVToW;
+    private final int[] matchedWToV;
+    private final int[] dist;      // v -> BFS layer, INF if not layered, a dead end or already on a path
+    private int freeLayer;         // layer of the shortest augmenting paths of the current phase
+    private final int[] cursor;    // v -> next edge to try by DFS in the current phase
+    private final int[] queue;
+    private final int[] rowStack;  // DFS path: left vertices
+    private final int[] colStack;  // DFS path: right vertex taken from rowStack[d]
+
+    public HopcroftKarp(int nV, int nW, List<Integer>[] graph) {
+        this(nV, nW, KuhnAlgorithm.offsetsOf(nV, graph), KuhnAlgorithm.targetsOf(nV, graph));
+    }
+
+    /**
+     * Graph in compressed sparse row form, as for {@link KuhnAlgorithm#KuhnAlgorithm(int, int, int[], int[])}.
+     */
+    public HopcroftKarp(int nV, int nW, int[] offsets, int[] targets) {
+        this.nV = nV;
+        this.nW = nW;
+        KuhnAlgorithm.checkGraph(nV, offsets, targets);
+        this.edgeStart = offsets;
+        this.edges = targets;
+        result = new KuhnAlgorithm.MaxBipartiteMatch(nW);
+        matchedVToW = new int[nV];
+        matchedWToV = result.matchedWToV;
+        dist = new int[nV];
+        cursor = new int[nV];
+        queue = new int[nV];
+        rowStack = new int[nV];
+        colStack = new int[nV];
+    }
+
+    /**
+     * Replaces the edges, the numbers of vertices stay the same.
+     */
+    public void setGraph(int[] offsets, int[] targets) {
+        KuhnAlgorithm.checkGraph(nV, offsets, targets);
+        this.edgeStart = offsets;
+        this.edges = targets;
+    }
+
+    /**
+     * Matches from scratch, every call returns the same result object.
+     */
+    public KuhnAlgorithm.MaxBipartiteMatch findMaxBipartiteMatching() {
+        Arrays.fill(matchedVToW, -1);
+        Arrays.fill(matchedWToV, -1);
+        int m = 0;
+        while (layer()) {
+            System.arraycopy(edgeStart, 0, cursor, 0, nV);
+            for (int v = 0; v < nV; v++) {
+                if (matchedVToW[v] == -1 && augment(v))
+                    m++;
+            }
+        }
+        result.m = m;
+        return result;
+    }
+
+    /**
+     * BFS from all free left vertices, returns whether some free right vertex is reachable.
+     * Layers beyond the first one with an edge to a free right vertex are not built.
+     */
+    private boolean layer() {
+        int head = 0, tail = 0;
+        for (int v = 0; v < nV; v++) {
+            if (matchedVToW[v] == -1) {
+                dist[v] = 0;
+                queue[tail++] = v;
+            } else {
+                dist[v] = INF;
+            }
+        }
+        freeLayer = INF;
+        while (head < tail) {
+            int v = queue[head++];
+            if (dist[v] >= freeLayer) {
+                // the queue is in layer order, so the rest is beyond the shortest paths
+                break;
+            }
+            for (int k = edgeStart[v]; k < edgeStart[v + 1]; k++) {
+                int next = matchedWToV[edges[k]];
+                if (next == -1) {
+                    freeLayer = dist[v];
+                } else if (dist[next] == INF) {
+                    dist[next] = dist[v] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return freeLayer != INF;
+    }
+
+    /**
+     * DFS along BFS layers from a free left vertex, flips the path if it ends at a free right vertex
+     * from the last layer. Dead ends and the vertices of a flipped path are taken out of the layering,
+     * so paths of a phase are vertex-disjoint and every edge is tried at most once per phase.
+     */
+    private boolean augment(int root) {
+        int depth = 0;
+        rowStack[0] = root;
+        while (depth >= 0) {
+            int v = rowStack[depth];
+            if (cursor[v] == edgeStart[v + 1]) {
+                dist[v] = INF;
+                depth--;
+                continue;
+            }
+            int w = edges[cursor[v]++];
+            int next = matchedWToV[w];
+            if (next == -1) {
+                if (dist[v] != freeLayer) {
+                    continue;
+                }
+                colStack[depth] = w;
+                for (int d = 0; d <= depth; d++) {
+                    matchedVToW[rowStack[d]] = colStack[d];
+                    matchedWToV[colStack[d]] = rowStack[d];
+                    dist[rowStack[d]] = INF;
+                }
+                return true;
+            }
+            if (dist[v] < freeLayer && dist[next] != INF && dist[next] == dist[v] + 1) {
+                colStack[depth] = w;
+                rowStack[++depth] = next;
+            }
+        }
+        return false;
+    }
+}
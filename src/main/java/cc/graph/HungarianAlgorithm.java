@@ -1,14 +1,20 @@
 package cc.graph;
 
-import java.io.BufferedReader;
+import java.io.FileNotFoundException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.util.Arrays;
+import java.util.BitSet;
 
+/**
+ * Minimum cost assignment of a cost matrix.
+ *
+ * Static solvers, without console I/O:
+ *   - {@link #solve(int[][])}, {@link #solve(long[][])}, {@link #solve(CostMatrix)} - O(n^3) potentials method
+ *     on an n x m matrix, the result is an {@link Assignment} with an exact long total;
+ *   - {@link #solve(double[][])} - the same for doubles, returns a {@link DoubleAssignment};
+ *   - {@link #solve(SparseCostMatrix)} - stores and scans allowed pairs only.
+ * An instance solves a square matrix by a chosen {@link Method}, tracing its steps to a {@link Tracer}.
+ */
 public class HungarianAlgorithm {
 
     public static final String ANSI_RESET = "\u001B[0m";
@@ -18,194 +24,710 @@ public class HungarianAlgorithm {
     // the input is assumed to be 100% valid
     private static final String INPUT_FILE_NAME = "hungarian_input_3.txt";
 
+    /**
+     * Solving methods, both find an optimal assignment.
+     */
+    public enum Method {
+        /** Textbook steps 1-4 of readme: reductions, then rounds of line cover and matrix adjustment. */
+        LINE_COVER,
+        /** Shortest augmenting paths with row / column potentials (Jonker-Volgenant style), O(n^3). */
+        POTENTIALS
+    }
+
+    /**
+     * Maximum bipartite matching engines of {@link Method#LINE_COVER}, both find a maximum matching of zeros.
+     */
+    public enum MatchingEngine {
+        /** {@link KuhnAlgorithm}, O(V * E). */
+        KUHN,
+        /** {@link HopcroftKarp}, O(E * sqrt(V)). */
+        HOPCROFT_KARP
+    }
+
+    /**
+     * Receives the steps of {@link Method#LINE_COVER}, e.g. to print them; all methods are no-op by default.
+     */
+    public interface Tracer {
+
+        Tracer NONE = new Tracer() {
+        };
+
+        /** Prints the matrix after every step, O(n^2) per round. */
+        Tracer CONSOLE = new ConsoleTracer();
+
+        default void matrix(String title, int[][] costMatrix) {
+        }
+
+        /**
+         * @param matchedColumnToRow column -> matched row, -1 if not matched
+         */
+        default void matching(int[][] costMatrix, int[] matchedColumnToRow) {
+        }
+
+        default void message(String message) {
+        }
+    }
+
+    /**
+     * Result of a solve of int or long costs.
+     *
+     * @param rowToColumn row -> assigned column, {@link #NONE} if the row is left unassigned
+     *                    (more rows than columns, or no allowed column left in a sparse matrix)
+     * @param totalCost   exact sum of assigned costs
+     */
+    public record Assignment(int[] rowToColumn, long totalCost) {
+
+        public static final int NONE = -1;
+
+        public int columnOf(int row) {
+            return rowToColumn[row];
+        }
+
+        public int assignedRows() {
+            int count = 0;
+            for (int col : rowToColumn) {
+                if (col != NONE) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Result of a solve of double costs.
+     *
+     * @param rowToColumn row -> assigned column, {@link Assignment#NONE} if the row is left unassigned
+     * @param totalCost   sum of assigned costs
+     */
+    public record DoubleAssignment(int[] rowToColumn, double totalCost) {
+
+        public int columnOf(int row) {
+            return rowToColumn[row];
+        }
+    }
+
     private int[][] costMatrix;
     private int n;
+    private Tracer tracer = Tracer.NONE;
+    private MatchingEngine matchingEngine = MatchingEngine.KUHN;
+    // working copy of the line cover method, reduced and adjusted in place
+    private CostMatrix reduced;
+    // buffers of the line cover method, reused by every round
+    // zeros of the reduced matrix: columns of row i are zeroTargets[zeroOffsets[i]] .. zeroTargets[zeroOffsets[i + 1] - 1]
+    private int[] zeroOffsets;
+    private int[] zeroTargets;
+    private KuhnAlgorithm kuhn;
+    private HopcroftKarp hopcroftKarp;
+    private BitSet rowReached;
+    private BitSet colReached;
+    private BitSet assignedRows;
+    private MinimumLineCover lineCover;
+    private int[] rowStack;
+    private int[] edgeStack;
+
+    // result: row -> assigned column, and the total cost of the input matrix
+    private int[] assignment;
+    private long totalCost;
 
     public HungarianAlgorithm(String filename) throws Exception {
         initCostMatrix(filename);
     }
 
+    /**
+     * Copies a square cost matrix.
+     */
+    public HungarianAlgorithm(int[][] costMatrix) {
+        this.n = costMatrix.length;
+        this.costMatrix = new int[n][];
+        for (int i = 0; i < n; i++) {
+            if (costMatrix[i].length != n) {
+                throw new IllegalArgumentException("Cost matrix is not square");
+            }
+            this.costMatrix[i] = costMatrix[i].clone();
+        }
+    }
+
     public static void main(String[] args) throws Exception {
+        System.out.println("Reading " + INPUT_FILE_NAME);
         HungarianAlgorithm algorithm = new HungarianAlgorithm(INPUT_FILE_NAME);
+        algorithm.setTracer(Tracer.CONSOLE);
         algorithm.solve();
     }
 
+    /**
+     * Solves an n x m matrix with the potentials method, O(min^2 * max) of n and m, the matrix is not modified.
+     * All rows are assigned when n <= m, otherwise all columns are, without padding to a square.
+     */
+    public static Assignment solve(int[][] costMatrix) {
+        return solve(costMatrix, new Scratch());
+    }
+
+    /**
+     * Same as {@link #solve(int[][])} with caller-owned work arrays.
+     */
+    static Assignment solve(int[][] costMatrix, Scratch scratch) {
+        int m = checkRectangular(costMatrix);
+        int[] rowToColumn = potentials(costMatrix.length, m, (i, buffer) -> widen(costMatrix[i], buffer), scratch);
+        long total = 0;
+        for (int i = 0; i < rowToColumn.length; i++) {
+            if (rowToColumn[i] != Assignment.NONE) {
+                total += costMatrix[i][rowToColumn[i]];
+            }
+        }
+        return new Assignment(rowToColumn, total);
+    }
+
+    /**
+     * Same as {@link #solve(int[][])}, costs and their partial sums must fit into long.
+     */
+    public static Assignment solve(long[][] costMatrix) {
+        int m = checkRectangular(costMatrix);
+        int[] rowToColumn = potentials(costMatrix.length, m, (i, buffer) -> costMatrix[i], new Scratch());
+        long total = 0;
+        for (int i = 0; i < rowToColumn.length; i++) {
+            if (rowToColumn[i] != Assignment.NONE) {
+                total += costMatrix[i][rowToColumn[i]];
+            }
+        }
+        return new Assignment(rowToColumn, total);
+    }
+
+    /**
+     * Same as {@link #solve(int[][])} for a flat square matrix, e.g. one too large for int[][] rows.
+     */
+    public static Assignment solve(CostMatrix costMatrix) {
+        int n = costMatrix.size();
+        int[] rowToColumn = potentials(n, n, costMatrix::row, new Scratch());
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += costMatrix.get(i, rowToColumn[i]);
+        }
+        return new Assignment(rowToColumn, total);
+    }
+
+    /**
+     * Same as {@link #solve(int[][])}, costs must be finite.
+     */
+    public static DoubleAssignment solve(double[][] costMatrix) {
+        int m = checkRectangular(costMatrix);
+        for (double[] row : costMatrix) {
+            for (double cost : row) {
+                if (!Double.isFinite(cost)) {
+                    throw new IllegalArgumentException("Cost is not finite: " + cost);
+                }
+            }
+        }
+        int n = costMatrix.length;
+        int[] rowToColumn = potentials(n, m, costMatrix);
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            if (rowToColumn[i] != Assignment.NONE) {
+                total += costMatrix[i][rowToColumn[i]];
+            }
+        }
+        return new DoubleAssignment(rowToColumn, total);
+    }
+
+    /**
+     * Solves a sparse matrix: only allowed pairs are stored and scanned.
+     * Rows are assigned one by one along shortest augmenting paths found by Dijkstra over allowed pairs,
+     * O(n * E log m) at worst, usually much less as a search stops at the first free column.
+     * A row without an augmenting path is left unassigned, so the result is a maximum matching,
+     * optimal among the matchings of the assigned rows. Costs must be below 2^53 in absolute value.
+     */
+    public static Assignment solve(SparseCostMatrix costMatrix) {
+        return new SparseAssignment(costMatrix).solve();
+    }
+
+    public void setMatchingEngine(MatchingEngine matchingEngine) {
+        this.matchingEngine = matchingEngine == null ? MatchingEngine.KUHN : matchingEngine;
+    }
+
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer == null ? Tracer.NONE : tracer;
+    }
+
     public void solve() {
+        solve(Method.LINE_COVER);
+    }
+
+    public void solve(Method method) {
+        switch (method) {
+            case LINE_COVER -> solveWithLineCover();
+            case POTENTIALS -> solveWithPotentials();
+        }
+    }
+
+    /**
+     * Row -> assigned column of the last solve.
+     */
+    public int[] getAssignment() {
+        return assignment == null ? null : assignment.clone();
+    }
+
+    /**
+     * Total cost of the last solve assignment.
+     */
+    public long getTotalCost() {
+        return totalCost;
+    }
+
+    // O(n^4) or worse: every round rebuilds the zero graph and the matching
+    private void solveWithLineCover() {
+        reduced = CostMatrix.of(costMatrix);
+        zeroOffsets = new int[n + 1];
+        zeroTargets = new int[n];
+        rowReached = new BitSet(n);
+        colReached = new BitSet(n);
+        assignedRows = new BitSet(n);
+        // reached rows are flipped into covered rows in place
+        lineCover = new MinimumLineCover(rowReached, colReached);
+        rowStack = new int[n];
+        edgeStack = new int[n];
         debug("Input read:");
         rowReduction();
         columnReduction();
         debug("Reduction applied:");
         while (true) {
-            var bipartiteGraph = createBipartiteGraph();
-            var maxBipartiteMatch = findMaxBipartiteMatching(bipartiteGraph);
+            createBipartiteGraph();
+            var maxBipartiteMatch = findMaxBipartiteMatching();
             printMaxBipartiteMatch(maxBipartiteMatch);
-            var minLineCover = findMinimumLineCover(bipartiteGraph, maxBipartiteMatch);
+            var minLineCover = findMinimumLineCover(maxBipartiteMatch);
             if (isDone(minLineCover)) {
-                System.out.println("Done!");
+                tracer.message("Done!");
+                // n lines cover the zeros, so the matching of zeros is perfect
+                assignment = new int[n];
+                for (int j = 0; j < n; j++) {
+                    assignment[maxBipartiteMatch.matchedWToV[j]] = j;
+                }
                 break;
             }
             adjustMatrix(minLineCover);
             debug("Adjustment applied:");
         }
+        reduced = null;
+        zeroOffsets = zeroTargets = null;
+        kuhn = null;
+        hopcroftKarp = null;
+        rowReached = colReached = assignedRows = null;
+        lineCover = null;
+        rowStack = edgeStack = null;
+        totalCost = totalCost(assignment);
     }
 
-    // O(n^2)
-    private void initCostMatrix(String filename) throws Exception {
-        System.out.println("Reading " + filename);
-        try (InputStream resource = this.getClass().getClassLoader().getResourceAsStream(filename);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(resource))
-        ) {
-            n = Integer.parseInt(reader.readLine().trim());
-            costMatrix = new int[n][n];
+    private void solveWithPotentials() {
+        int[][] matrix = costMatrix;
+        assignment = potentials(n, n, (i, buffer) -> widen(matrix[i], buffer), new Scratch());
+        totalCost = totalCost(assignment);
+    }
+
+    /**
+     * Rows of a cost matrix for the potentials kernel.
+     */
+    private interface CostRows {
+        /**
+         * Row i: a stored row, or the row copied into buffer, which holds at least a row.
+         */
+        long[] row(int i, long[] buffer);
+    }
+
+    private static long[] widen(int[] row, long[] buffer) {
+        for (int j = 0; j < row.length; j++) {
+            buffer[j] = row[j];
+        }
+        return buffer;
+    }
+
+    /**
+     * O(n^2 * m) for n <= m: rows are added one by one, each by a Dijkstra-like shortest augmenting path
+     * over reduced costs c[i][j] - u[i] - v[j] >= 0; potentials u, v keep the reduced costs non-negative.
+     * Index 0 is a fake column holding the row being added, rows and columns are 1-based inside.
+     * When n > m the transposed problem is solved, so that every column is assigned.
+     * The scanned row is fetched once per step and indexed directly, so the inner loop stays inlined.
+     * Returns row -> assigned column.
+     */
+    private static int[] potentials(int n, int m, CostRows costs, Scratch scratch) {
+        if (n > m) {
+            // one O(n * m) transposed copy, so that the kernel still scans rows
+            long[][] transposed = new long[m][n];
+            long[] buffer = new long[m];
             for (int i = 0; i < n; i++) {
-                costMatrix[i] = Stream.of(reader.readLine().trim().split("\\s+"))
-                        .mapToInt(Integer::parseInt)
-                        .toArray();
+                long[] row = costs.row(i, buffer);
+                for (int j = 0; j < m; j++) {
+                    transposed[j][i] = row[j];
+                }
             }
+            return invert(potentials(m, n, (i, unused) -> transposed[i], scratch), n);
         }
+        scratch.reset(n, m);
+        long[] u = scratch.u;
+        long[] v = scratch.v;
+        int[] p = scratch.p;     // column -> matched row
+        int[] way = scratch.way; // column -> previous column of the augmenting path
+        long[] minv = scratch.minv;
+        boolean[] used = scratch.used;
+        long[] buffer = scratch.rowBuffer(m);
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, 0, m + 1, Long.MAX_VALUE);
+            Arrays.fill(used, 0, m + 1, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                long[] row = costs.row(i0 - 1, buffer);
+                long ui = u[i0];
+                long delta = Long.MAX_VALUE;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    long reduced = row[j - 1] - ui - v[j];
+                    if (reduced < minv[j]) {
+                        minv[j] = reduced;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            // flip the augmenting path
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        return rowToColumn(n, m, p);
     }
 
-    private void debug(String title) {
-        System.out.println("\n" + title);
-        System.out.printf("n = %s\n", n);
-        System.out.print("     ");
-        for (int j = 0; j < n; j++) {
-            System.out.printf("%4d ", j);
+    /**
+     * Same as {@link #potentials(int, int, CostRows, Scratch)} for double costs.
+     */
+    private static int[] potentials(int n, int m, double[][] costs) {
+        if (n > m) {
+            double[][] transposed = new double[m][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < m; j++) {
+                    transposed[j][i] = costs[i][j];
+                }
+            }
+            return invert(potentials(m, n, transposed), n);
         }
-        System.out.println();
-        for (int i = 0; i < n; i++) {
-            System.out.printf("%4d ", i);
-            for (int j = 0; j < n; j++) {
-                System.out.printf("%4d ", costMatrix[i][j]);
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                double[] row = costs[i0 - 1];
+                double ui = u[i0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    double reduced = row[j - 1] - ui - v[j];
+                    if (reduced < minv[j]) {
+                        minv[j] = reduced;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        return rowToColumn(n, m, p);
+    }
+
+    /**
+     * Row -> column of n rows from column -> row of m 1-based columns, {@link Assignment#NONE} if not matched.
+     */
+    private static int[] rowToColumn(int n, int m, int[] columnToRow) {
+        int[] result = new int[n];
+        Arrays.fill(result, Assignment.NONE);
+        for (int j = 1; j <= m; j++) {
+            if (columnToRow[j] != 0) {
+                result[columnToRow[j] - 1] = j - 1;
             }
-            System.out.println();
         }
+        return result;
     }
 
-    private void printMaxBipartiteMatch(KuhnAlgorithm.MaxBipartiteMatch maxBipartiteMatch) {
-        System.out.println("\n" + "Current Max Bipartite Match");
-        System.out.printf("n = %s\n", n);
-        System.out.print("     ");
-        for (int j = 0; j < n; j++) {
-            System.out.printf("%4d ", j);
+    /**
+     * Work arrays of the potentials method for int and long costs, grown on demand.
+     * Kept by a caller which solves many matrices, e.g. one per worker thread, so that a solve allocates
+     * its result only. Not thread-safe.
+     */
+    static final class Scratch {
+
+        private long[] u = new long[0];
+        private long[] v = new long[0];
+        private int[] p = new int[0];
+        private int[] way = new int[0];
+        private long[] minv = new long[0];
+        private boolean[] used = new boolean[0];
+        private long[] rowBuffer = new long[0];
+
+        private long[] rowBuffer(int length) {
+            if (rowBuffer.length < length) {
+                rowBuffer = new long[length];
+            }
+            return rowBuffer;
         }
-        System.out.println();
-        for (int i = 0; i < n; i++) {
-            System.out.printf("%4d ", i);
-            for (int j = 0; j < n; j++) {
-                if (maxBipartiteMatch.matchedWToV[j] == i)
-                    System.out.printf(ANSI_BOLD + ANSI_GREEN + "%4d " + ANSI_RESET, costMatrix[i][j]);
-                else
-                    System.out.printf("%4d ", costMatrix[i][j]);
+
+        private void reset(int n, int m) {
+            if (u.length < n + 1) {
+                u = new long[n + 1];
             }
-            System.out.println();
+            if (v.length < m + 1) {
+                v = new long[m + 1];
+                p = new int[m + 1];
+                way = new int[m + 1];
+                minv = new long[m + 1];
+                used = new boolean[m + 1];
+            }
+            Arrays.fill(u, 0, n + 1, 0);
+            Arrays.fill(v, 0, m + 1, 0);
+            Arrays.fill(p, 0, m + 1, 0);
         }
     }
 
     /**
-     * Step 1 of algo - see readme.
+     * Turns an assignment of the transposed problem into row -> column of n rows.
      */
-    private void rowReduction() {
-        for (int i = 0; i < n; i++) {
-            int min = costMatrix[i][0];
-            for (int j = 1; j < n; j++) {
-                min = Math.min(min, costMatrix[i][j]);
+    private static int[] invert(int[] colToRow, int n) {
+        int[] result = new int[n];
+        Arrays.fill(result, Assignment.NONE);
+        for (int j = 0; j < colToRow.length; j++) {
+            if (colToRow[j] != Assignment.NONE) {
+                result[colToRow[j]] = j;
             }
-            for (int j = 0; j < n; j++) {
-                costMatrix[i][j] -= min;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of columns.
+     */
+    private static int checkRectangular(int[][] costMatrix) {
+        int m = costMatrix.length == 0 ? 0 : costMatrix[0].length;
+        for (int[] row : costMatrix) {
+            checkRow(row == null ? -1 : row.length, m);
+        }
+        return m;
+    }
+
+    private static int checkRectangular(long[][] costMatrix) {
+        int m = costMatrix.length == 0 ? 0 : costMatrix[0].length;
+        for (long[] row : costMatrix) {
+            checkRow(row == null ? -1 : row.length, m);
+        }
+        return m;
+    }
+
+    private static int checkRectangular(double[][] costMatrix) {
+        int m = costMatrix.length == 0 ? 0 : costMatrix[0].length;
+        for (double[] row : costMatrix) {
+            checkRow(row == null ? -1 : row.length, m);
+        }
+        return m;
+    }
+
+    private static void checkRow(int length, int m) {
+        if (length != m) {
+            throw new IllegalArgumentException("Cost matrix is not rectangular");
+        }
+    }
+
+    private long totalCost(int[] assignment) {
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += costMatrix[i][assignment[i]];
+        }
+        return total;
+    }
+
+    // O(n^2)
+    private void initCostMatrix(String filename) throws Exception {
+        try (InputStream resource = this.getClass().getClassLoader().getResourceAsStream(filename)) {
+            if (resource == null) {
+                throw new FileNotFoundException("No file: " + filename);
             }
+            costMatrix = CostMatrixFiles.readText(resource);
+            n = costMatrix.length;
         }
     }
 
+    private void debug(String title) {
+        if (tracer != Tracer.NONE) {
+            tracer.matrix(title, reduced.toArray());
+        }
+    }
+
+    private void printMaxBipartiteMatch(KuhnAlgorithm.MaxBipartiteMatch maxBipartiteMatch) {
+        if (tracer != Tracer.NONE) {
+            tracer.matching(reduced.toArray(), maxBipartiteMatch.matchedWToV);
+        }
+    }
+
+    /**
+     * Step 1 of algo - see readme.
+     */
+    private void rowReduction() {
+        reduced.reduceRows();
+    }
+
     /**
      * Step 2 of algo - see readme.
      */
     private void columnReduction() {
-        for (int j = 0; j < n; j++) {
-            int min = costMatrix[0][j];
-            for (int i = 1; i < n; i++) {
-                min = Math.min(min, costMatrix[i][j]);
-            }
-            for (int i = 0; i < n; i++) {
-                costMatrix[i][j] -= min;
-            }
-        }
+        reduced.reduceColumns();
     }
 
     /**
      * Step 3.1 of algo - see readme.
+     * Zeros as "row -> column" edges in compressed sparse row form, into zeroOffsets and zeroTargets.
      */
-    private List<Integer>[] createBipartiteGraph() {
-        List<Integer>[] graph = new ArrayList[n];
+    private void createBipartiteGraph() {
+        int zeros = 0;
         for (int i = 0; i < n; i++) {
-            graph[i] = new ArrayList<>();
             for (int j = 0; j < n; j++) {
-                if (costMatrix[i][j] == 0) {
-                    graph[i].add(j);
+                if (reduced.get(i, j) == 0) {
+                    zeros++;
+                }
+            }
+            zeroOffsets[i + 1] = zeros;
+        }
+        if (zeros > zeroTargets.length) {
+            zeroTargets = new int[Math.max(zeros, zeroTargets.length * 2)];
+        }
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (reduced.get(i, j) == 0) {
+                    zeroTargets[k++] = j;
                 }
             }
         }
-        return graph;
     }
 
     /**
      * Step 3.1 of algo - see readme.
+     * The matcher of the first round is kept and given the graph of every next one.
      */
-    private KuhnAlgorithm.MaxBipartiteMatch findMaxBipartiteMatching(List<Integer>[] bipartiteGraph) {
-        KuhnAlgorithm kuhn = new KuhnAlgorithm(n, n, bipartiteGraph);
-        return kuhn.findMaxBipartiteMatching();
+    private KuhnAlgorithm.MaxBipartiteMatch findMaxBipartiteMatching() {
+        switch (matchingEngine) {
+            case KUHN -> {
+                if (kuhn == null) {
+                    kuhn = new KuhnAlgorithm(n, n, zeroOffsets, zeroTargets);
+                } else {
+                    kuhn.setGraph(zeroOffsets, zeroTargets);
+                }
+                return kuhn.findMaxBipartiteMatching();
+            }
+            case HOPCROFT_KARP -> {
+                if (hopcroftKarp == null) {
+                    hopcroftKarp = new HopcroftKarp(n, n, zeroOffsets, zeroTargets);
+                } else {
+                    hopcroftKarp.setGraph(zeroOffsets, zeroTargets);
+                }
+                return hopcroftKarp.findMaxBipartiteMatching();
+            }
+            default -> throw new IllegalStateException("Unknown matching engine: " + matchingEngine);
+        }
     }
 
     /**
      * Step 3.2 of algo - see readme.
+     * Returns the same cover object every round, valid until the next one.
      */
-    private MinimumLineCover findMinimumLineCover(List<Integer>[] bipartiteGraph, KuhnAlgorithm.MaxBipartiteMatch maxBipartiteMatch) {
-        boolean[] rowReached = new boolean[n];
-        boolean[] colReached = new boolean[n];
+    private MinimumLineCover findMinimumLineCover(KuhnAlgorithm.MaxBipartiteMatch maxBipartiteMatch) {
+        rowReached.clear();
+        colReached.clear();
 
         // find unassigned rows
-        boolean[] assignedRow = new boolean[n];
+        assignedRows.clear();
         for (int v : maxBipartiteMatch.matchedWToV) {
             if (v != -1)
-                assignedRow[v] = true;
+                assignedRows.set(v);
         }
 
         // start DFS from unassigned rows: unmatched edge -> matched edge -> unmatched edge -> ...
-        for (int v = 0; v < n; v++) {
-            if (!assignedRow[v])
-                reach(v, bipartiteGraph, maxBipartiteMatch, rowReached, colReached);
+        for (int v = assignedRows.nextClearBit(0); v < n; v = assignedRows.nextClearBit(v + 1)) {
+            if (!rowReached.get(v))
+                reach(v, maxBipartiteMatch);
         }
 
-        // prepare covered rows and covered columns
-        var minLineCover = new MinimumLineCover(new HashSet<>(), new HashSet<>());
-        for (int i = 0; i < n; i++) {
-            // covered rows are not reached rows
-            if (!rowReached[i]) {
-                minLineCover.coveredRows.add(i);
-            }
-        }
-        for (int j = 0; j < n; j++) {
-            // covered columns are reached columns
-            if (colReached[j]) {
-                minLineCover.coveredCols.add(j);
-            }
-        }
-        return minLineCover;
+        // covered rows are not reached rows, covered columns are reached columns
+        rowReached.flip(0, n);
+        return lineCover;
     }
 
     /**
-     * DFS as Alternating Path traversal - for step 3.2
+     * DFS as Alternating Path traversal - for step 3.2.
+     * Iterative, with an explicit stack of rows and their next edge, so long paths do not overflow the call stack.
      */
-    private void reach(int v, List<Integer>[] graph, KuhnAlgorithm.MaxBipartiteMatch match,
-                       boolean[] rowReached, boolean[] colReached) {
-        rowReached[v] = true;
-        for (int w : graph[v]) {
-            if (colReached[w])
+    private void reach(int root, KuhnAlgorithm.MaxBipartiteMatch match) {
+        int depth = 0;
+        rowStack[depth] = root;
+        edgeStack[depth] = zeroOffsets[root];
+        rowReached.set(root);
+        while (depth >= 0) {
+            int v = rowStack[depth];
+            if (edgeStack[depth] == zeroOffsets[v + 1]) {
+                depth--;
+                continue;
+            }
+            int w = zeroTargets[edgeStack[depth]++];
+            if (colReached.get(w))
                 continue;
-            colReached[w] = true;
+            colReached.set(w);
             var nextV = match.matchedWToV[w];
-            if (nextV != -1 && !rowReached[nextV]) {
-                reach(nextV, graph, match, rowReached, colReached);
+            if (nextV != -1 && !rowReached.get(nextV)) {
+                // each row is pushed once, so depth < n
+                rowReached.set(nextV);
+                depth++;
+                rowStack[depth] = nextV;
+                edgeStack[depth] = zeroOffsets[nextV];
             }
         }
     }
@@ -219,38 +741,70 @@ public class HungarianAlgorithm {
 
     /**
      * Step 4 of algo - see readme.
+     * Large matrices are scanned and updated in parallel row blocks, see {@link CostMatrix}.
      */
     private void adjustMatrix(MinimumLineCover minLineCover) {
-        int h = Integer.MAX_VALUE;
         // find min uncovered value h
-        for (int i = 0; i < n; i++) {
-            if (minLineCover.coveredRows.contains(i))
-                continue;
-            for (int j = 0; j < n; j++) {
-                if (minLineCover.coveredCols.contains(j))
-                    continue;
-                h = Math.min(h, costMatrix[i][j]);
-            }
-        }
+        int h = reduced.minUncovered(minLineCover.coveredRows, minLineCover.coveredCols);
         if (h == Integer.MAX_VALUE) {
             throw new RuntimeException("h cannot be found");
         }
         // adjust matrix
-        for (int i = 0; i < n; i++) {
-            boolean isCoveredRow = minLineCover.coveredRows.contains(i);
+        reduced.adjust(h, minLineCover.coveredRows, minLineCover.coveredCols);
+    }
+
+    public record MinimumLineCover(BitSet coveredRows, BitSet coveredCols) {
+        public int linesCount() {
+            return coveredRows.cardinality() + coveredCols.cardinality();
+        }
+    }
+
+    private static class ConsoleTracer implements Tracer {
+
+        @Override
+        public void matrix(String title, int[][] costMatrix) {
+            int n = costMatrix.length;
+            System.out.println("\n" + title);
+            System.out.printf("n = %s\n", n);
+            System.out.print("     ");
             for (int j = 0; j < n; j++) {
-                boolean isCoveredColumn = minLineCover.coveredCols.contains(j);
-                if (isCoveredRow && isCoveredColumn)
-                    costMatrix[i][j] += h;
-                if (!isCoveredRow && !isCoveredColumn)
-                    costMatrix[i][j] -= h;
+                System.out.printf("%4d ", j);
+            }
+            System.out.println();
+            for (int i = 0; i < n; i++) {
+                System.out.printf("%4d ", i);
+                for (int j = 0; j < n; j++) {
+                    System.out.printf("%4d ", costMatrix[i][j]);
+                }
+                System.out.println();
             }
         }
-    }
 
-    public record MinimumLineCover(Set<Integer> coveredRows, Set<Integer> coveredCols) {
-        public int linesCount() {
-            return coveredRows.size() + coveredCols.size();
+        @Override
+        public void matching(int[][] costMatrix, int[] matchedColumnToRow) {
+            int n = costMatrix.length;
+            System.out.println("\n" + "Current Max Bipartite Match");
+            System.out.printf("n = %s\n", n);
+            System.out.print("     ");
+            for (int j = 0; j < n; j++) {
+                System.out.printf("%4d ", j);
+            }
+            System.out.println();
+            for (int i = 0; i < n; i++) {
+                System.out.printf("%4d ", i);
+                for (int j = 0; j < n; j++) {
+                    if (matchedColumnToRow[j] == i)
+                        System.out.printf(ANSI_BOLD + ANSI_GREEN + "%4d " + ANSI_RESET, costMatrix[i][j]);
+                    else
+                        System.out.printf("%4d ", costMatrix[i][j]);
+                }
+                System.out.println();
+            }
+        }
+
+        @Override
+        public void message(String message) {
+            System.out.println(message);
         }
     }
 }
@@ -0,0 +1,238 @@
+package cc.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed binary min-heap over int ids in range [0, capacity) with double keys.
+ * Each id is stored at most once, so an improved key is applied in place (decrease-key)
+ * instead of pushing a duplicate entry.
+ * Optionally ids are ordered by (key, secondary key) pairs, e.g. for D* Lite keys.
+ *
+ * Memory: 3 primitive arrays of size capacity, 4 with secondary keys, nothing is allocated after construction.
+ * Complexity: push / poll / decrease-key - O(log N), contains - O(1).
+ */
+public class IndexedMinHeap {
+
+    private static final int ARITY = 2;
+
+    private final int[] heap;      // heap slot -> id
+    private final int[] position;  // id -> heap slot, -1 if id is not in heap
+    private final double[] keys;   // id -> key
+    private final double[] secondaryKeys; // id -> tie-breaking key, null if not used
+    private int size;
+
+    // operation counters for search statistics, see resetCounters()
+    private long pushes;
+    private long polls;
+    private int peakSize;
+
+    public IndexedMinHeap(int capacity) {
+        this(capacity, false);
+    }
+
+    public IndexedMinHeap(int capacity, boolean secondaryKeys) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        this.secondaryKeys = secondaryKeys ? new double[capacity] : null;
+        Arrays.fill(position, -1);
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return position[id] != -1;
+    }
+
+    public double key(int id) {
+        return keys[id];
+    }
+
+    public double secondaryKey(int id) {
+        return secondaryKeys[id];
+    }
+
+    /**
+     * Inserts id with a given key, or moves an already queued id to its new key.
+     */
+    public void push(int id, double key) {
+        pushes++;
+        int slot = position[id];
+        if (slot == -1) {
+            slot = size++;
+            peakSize = Math.max(peakSize, size);
+            heap[slot] = id;
+            position[id] = slot;
+            keys[id] = key;
+            siftUp(slot);
+        } else if (key < keys[id]) {
+            keys[id] = key;
+            siftUp(slot);
+        } else if (key > keys[id]) {
+            keys[id] = key;
+            siftDown(slot);
+        }
+    }
+
+    /**
+     * Inserts or moves id ordered by (key, secondaryKey), heap must be created with secondary keys.
+     */
+    public void push(int id, double key, double secondaryKey) {
+        pushes++;
+        int slot = position[id];
+        if (slot == -1) {
+            slot = size++;
+            peakSize = Math.max(peakSize, size);
+            heap[slot] = id;
+            position[id] = slot;
+            keys[id] = key;
+            secondaryKeys[id] = secondaryKey;
+            siftUp(slot);
+        } else {
+            keys[id] = key;
+            secondaryKeys[id] = secondaryKey;
+            siftUp(slot);
+            siftDown(position[id]);
+        }
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    public double peekKey() {
+        return keys[peek()];
+    }
+
+    /**
+     * Removes and returns the id with minimal key.
+     */
+    public int poll() {
+        int top = peek();
+        polls++;
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes given id from the heap if it is queued.
+     */
+    public void remove(int id) {
+        int slot = position[id];
+        if (slot == -1) {
+            return;
+        }
+        position[id] = -1;
+        size--;
+        if (slot < size) {
+            int last = heap[size];
+            heap[slot] = last;
+            position[last] = slot;
+            siftUp(slot);
+            siftDown(position[last]);
+        }
+    }
+
+    /**
+     * Empties the heap in O(size), so it can be reused by the next search.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Number of push calls, including key updates of queued ids, since the last {@link #resetCounters()}.
+     */
+    public long pushes() {
+        return pushes;
+    }
+
+    public long polls() {
+        return polls;
+    }
+
+    /**
+     * Maximal number of queued ids since the last {@link #resetCounters()}.
+     */
+    public int peakSize() {
+        return peakSize;
+    }
+
+    public void resetCounters() {
+        pushes = 0;
+        polls = 0;
+        peakSize = size;
+    }
+
+    private void siftUp(int slot) {
+        int id = heap[slot];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / ARITY;
+            int parent = heap[parentSlot];
+            if (!less(id, parent)) {
+                break;
+            }
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int id = heap[slot];
+        while (true) {
+            int first = slot * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + ARITY, size);
+            int best = first;
+            for (int child = first + 1; child < last; child++) {
+                if (less(heap[child], heap[best])) {
+                    best = child;
+                }
+            }
+            if (!less(heap[best], id)) {
+                break;
+            }
+            heap[slot] = heap[best];
+            position[heap[slot]] = slot;
+            slot = best;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+
+    private boolean less(int a, int b) {
+        if (secondaryKeys == null || keys[a] != keys[b]) {
+            return keys[a] < keys[b];
+        }
+        return secondaryKeys[a] < secondaryKeys[b];
+    }
+}
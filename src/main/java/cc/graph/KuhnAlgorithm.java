@@ -7,48 +7,130 @@ import java.util.List;
  * Kuhn's Algorithm for Maximum Bipartite Matching using DFS.
  * V - is a left set of vertices.
  * W - is a right set of vertices.
- * graph - adjacency list of "v -> w" edges.
+ * graph - "v -> w" edges, in compressed sparse row (CSR) form: edges of v are
+ * targets[offsets[v]] .. targets[offsets[v + 1] - 1]; an adjacency list is copied into this form.
+ * targets may be longer than offsets[nV], so that a caller can keep one buffer for graphs of any size.
+ *
+ * DFS is iterative, with an explicit stack, so long augmenting paths do not overflow the call stack.
+ * Visited marks are stamped with the number of the current search instead of being reallocated.
+ * A solver may be run again on another graph of the same size, see {@link #setGraph(int[], int[])},
+ * which reuses its work arrays and its result object.
  *
  * The complexity of algo: O(nV * E).
  */
 public class KuhnAlgorithm {
 
     private final int nV, nW;
-    private final List<Integer>[] graph;
+    private int[] offsets;
+    private int[] targets;
     private final MaxBipartiteMatch result;
 
-    private boolean[] visited;
+    private final int[] visited;   // w -> number of the last search which visited it
+    private final int[] rowStack;  // DFS path: left vertices
+    private final int[] edgeStack; // DFS path: next edge of rowStack[d]
+    private final int[] colStack;  // DFS path: right vertex taken from rowStack[d]
 
     public KuhnAlgorithm(int nV, int nW, List<Integer>[] graph) {
+        this(nV, nW, offsetsOf(nV, graph), targetsOf(nV, graph));
+    }
+
+    public KuhnAlgorithm(int nV, int nW, int[] offsets, int[] targets) {
         this.nV = nV;
         this.nW = nW;
-        this.graph = graph;
+        checkGraph(nV, offsets, targets);
+        this.offsets = offsets;
+        this.targets = targets;
         this.result = new MaxBipartiteMatch(nW);
+        visited = new int[nW];
+        // every level below the root takes a new right vertex
+        int maxDepth = Math.min(nV, nW) + 1;
+        rowStack = new int[maxDepth];
+        edgeStack = new int[maxDepth];
+        colStack = new int[maxDepth];
     }
 
+    /**
+     * Replaces the edges, the numbers of vertices stay the same.
+     */
+    public void setGraph(int[] offsets, int[] targets) {
+        checkGraph(nV, offsets, targets);
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Matches from scratch, every call returns the same result object.
+     */
     public MaxBipartiteMatch findMaxBipartiteMatching() {
+        result.m = 0;
+        Arrays.fill(result.matchedWToV, -1);
+        Arrays.fill(visited, 0);
         for (int v = 0; v < nV; v++) {
-            visited = new boolean[nW];
-            if (dfs(v))
+            if (dfs(v, v + 1))
                 result.m++;
         }
         return result;
     }
 
-    private boolean dfs(int v) {
-        for (int w : graph[v]) {
-            if (visited[w])
+    private boolean dfs(int root, int search) {
+        int depth = 0;
+        rowStack[0] = root;
+        edgeStack[0] = offsets[root];
+        while (depth >= 0) {
+            int v = rowStack[depth];
+            if (edgeStack[depth] == offsets[v + 1]) {
+                depth--;
                 continue;
-            visited[w] = true;
+            }
+            int w = targets[edgeStack[depth]++];
+            if (visited[w] == search)
+                continue;
+            visited[w] = search;
+            colStack[depth] = w;
+            int next = result.matchedWToV[w];
             // a) no match, or b) try to do alternative match
-            if (result.matchedWToV[w] == -1 || dfs(result.matchedWToV[w])) {
-                result.matchedWToV[w] = v;
+            if (next == -1) {
+                for (int d = 0; d <= depth; d++) {
+                    result.matchedWToV[colStack[d]] = rowStack[d];
+                }
                 return true;
             }
+            depth++;
+            rowStack[depth] = next;
+            edgeStack[depth] = offsets[next];
         }
         return false;
     }
 
+    static void checkGraph(int nV, int[] offsets, int[] targets) {
+        if (offsets.length != nV + 1 || offsets[nV] > targets.length) {
+            throw new IllegalArgumentException("Invalid graph layout");
+        }
+    }
+
+    static int[] offsetsOf(int nV, List<Integer>[] graph) {
+        int[] offsets = new int[nV + 1];
+        for (int v = 0; v < nV; v++) {
+            offsets[v + 1] = offsets[v] + graph[v].size();
+        }
+        return offsets;
+    }
+
+    static int[] targetsOf(int nV, List<Integer>[] graph) {
+        int size = 0;
+        for (int v = 0; v < nV; v++) {
+            size += graph[v].size();
+        }
+        int[] targets = new int[size];
+        int k = 0;
+        for (int v = 0; v < nV; v++) {
+            for (int w : graph[v]) {
+                targets[k++] = w;
+            }
+        }
+        return targets;
+    }
+
     public static class MaxBipartiteMatch {
         public int m = 0;
         public int[] matchedWToV;
@@ -0,0 +1,205 @@
+package cc.graph;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * Landmark (ALT) lower bounds for {@link AStar}: BFS distances from a few landmark cells to every cell,
+ * so by the triangle inequality dist(v, t) >= |d(L, t) - d(L, v)| for every landmark L.
+ * The bound is consistent and follows walls, so it is much tighter than Euclidean distance on maze-like maps.
+ *
+ * Landmarks are selected farthest-first: each next landmark is the cell farthest from those already selected,
+ * in the largest connected component of the grid.
+ * Distances are stored as 16-bit values when the grid has less than 65535 cells, as int otherwise,
+ * and the number of landmarks is cut to fit the memory budget.
+ *
+ * Bounds are valid only for the grid version they were computed on, see {@link #isCurrent()}.
+ * An instance is immutable and thread-safe.
+ */
+public class Landmarks {
+
+    private static final int NARROW_UNREACHABLE = 0xFFFF;
+
+    private final BitGrid grid;
+    private final long version;
+    private final int[] cells;
+    private final short[][] narrow; // landmark -> cell id -> unsigned distance, when the grid is small
+    private final int[][] wide;     // landmark -> cell id -> distance, otherwise
+
+    private Landmarks(BitGrid grid, long version, int[] cells, short[][] narrow, int[][] wide) {
+        this.grid = grid;
+        this.version = version;
+        this.cells = cells;
+        this.narrow = narrow;
+        this.wide = wide;
+    }
+
+    /**
+     * Selects up to count landmarks, no more than fit into maxBytes of distance arrays. O(count * M * N).
+     */
+    public static Landmarks select(BitGrid grid, int count, long maxBytes) {
+        if (grid == null) {
+            throw new IllegalArgumentException(BitGrid.MSG_INVALID_GRID);
+        }
+        if (count <= 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("Invalid landmark count or memory budget: " + count + ", " + maxBytes);
+        }
+        long version = grid.version();
+        int m = grid.rows();
+        int n = grid.cols();
+        int size = m * n;
+        boolean isNarrow = size < NARROW_UNREACHABLE;
+        count = (int) Math.min(count, maxBytes / ((long) size * (isNarrow ? Short.BYTES : Integer.BYTES)));
+
+        int seed = largestComponent(grid);
+        if (seed < 0 || count == 0) {
+            return new Landmarks(grid, version, new int[0], isNarrow ? new short[0][] : null,
+                    isNarrow ? null : new int[0][]);
+        }
+        // cell id -> distance to the nearest selected landmark
+        int[] nearest = new int[size];
+        Arrays.fill(nearest, FlowField.UNREACHABLE);
+        int farthest = farthest(FlowField.of(grid, new Point(seed / n, seed % n)), nearest, size, n);
+        Arrays.fill(nearest, FlowField.UNREACHABLE);
+
+        int[] cells = new int[count];
+        short[][] narrow = isNarrow ? new short[count][] : null;
+        int[][] wide = isNarrow ? null : new int[count][];
+        int selected = 0;
+        while (selected < count && farthest >= 0) {
+            FlowField field = FlowField.of(grid, new Point(farthest / n, farthest % n));
+            cells[selected] = farthest;
+            if (isNarrow) {
+                narrow[selected] = new short[size];
+                for (int id = 0; id < size; id++) {
+                    int d = field.distance(id / n, id % n);
+                    narrow[selected][id] = (short) (d == FlowField.UNREACHABLE ? NARROW_UNREACHABLE : d);
+                }
+            } else {
+                wide[selected] = new int[size];
+                for (int id = 0; id < size; id++) {
+                    wide[selected][id] = field.distance(id / n, id % n);
+                }
+            }
+            selected++;
+            farthest = farthest(field, nearest, size, n);
+        }
+        return new Landmarks(grid, version, Arrays.copyOf(cells, selected),
+                isNarrow ? Arrays.copyOf(narrow, selected) : null,
+                isNarrow ? null : Arrays.copyOf(wide, selected));
+    }
+
+    public int count() {
+        return cells.length;
+    }
+
+    public Point landmark(int i) {
+        return new Point(cells[i] / grid.cols(), cells[i] % grid.cols());
+    }
+
+    /**
+     * Memory taken by distance arrays.
+     */
+    public long bytes() {
+        return (long) cells.length * grid.rows() * grid.cols() * (narrow != null ? Short.BYTES : Integer.BYTES);
+    }
+
+    public BitGrid grid() {
+        return grid;
+    }
+
+    /**
+     * True while the grid has not changed since the landmarks were selected.
+     */
+    public boolean isCurrent() {
+        return grid.version() == version;
+    }
+
+    /**
+     * Lower bound of the path length between two cells given by ids (x * cols + y), 0 if nothing is known.
+     */
+    public int lowerBound(int from, int to) {
+        int bound = 0;
+        if (narrow != null) {
+            for (short[] distance : narrow) {
+                int a = distance[from] & 0xFFFF;
+                int b = distance[to] & 0xFFFF;
+                if (a != NARROW_UNREACHABLE && b != NARROW_UNREACHABLE) {
+                    bound = Math.max(bound, Math.abs(a - b));
+                }
+            }
+        } else {
+            for (int[] distance : wide) {
+                int a = distance[from];
+                int b = distance[to];
+                if (a != FlowField.UNREACHABLE && b != FlowField.UNREACHABLE) {
+                    bound = Math.max(bound, Math.abs(a - b));
+                }
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Merges distances of the last landmark into nearest and returns the farthest cell, -1 if none is left.
+     */
+    private static int farthest(FlowField field, int[] nearest, int size, int n) {
+        int result = -1;
+        int max = 0;
+        for (int id = 0; id < size; id++) {
+            int d = field.distance(id / n, id % n);
+            if (d != FlowField.UNREACHABLE && (nearest[id] == FlowField.UNREACHABLE || d < nearest[id])) {
+                nearest[id] = d;
+            }
+            if (nearest[id] > max) {
+                max = nearest[id];
+                result = id;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a cell of the largest 4-connected component of free cells, -1 if there are no free cells.
+     */
+    private static int largestComponent(BitGrid grid) {
+        int m = grid.rows();
+        int n = grid.cols();
+        boolean[] seen = new boolean[m * n];
+        int[] queue = new int[m * n];
+        int result = -1;
+        int largest = 0;
+        for (int start = 0; start < m * n; start++) {
+            if (seen[start] || !grid.isFree(start / n, start % n)) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            seen[start] = true;
+            queue[tail++] = start;
+            while (head < tail) {
+                int v = queue[head++];
+                int vx = v / n;
+                int vy = v % n;
+                tail = visit(grid, vx - 1, vy, seen, queue, tail);
+                tail = visit(grid, vx, vy - 1, seen, queue, tail);
+                tail = visit(grid, vx + 1, vy, seen, queue, tail);
+                tail = visit(grid, vx, vy + 1, seen, queue, tail);
+            }
+            if (tail > largest) {
+                largest = tail;
+                result = start;
+            }
+        }
+        return result;
+    }
+
+    private static int visit(BitGrid grid, int x, int y, boolean[] seen, int[] queue, int tail) {
+        int id = x * grid.cols() + y;
+        if (grid.isFree(x, y) && !seen[id]) {
+            seen[id] = true;
+            queue[tail++] = id;
+        }
+        return tail;
+    }
+}
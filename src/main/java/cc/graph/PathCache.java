@@ -0,0 +1,135 @@
+package cc.graph;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of found paths keyed by (source cell, target cell).
+ * The bound is the total number of cells of cached paths, so a few long paths
+ * cannot take the memory of many short ones unnoticed.
+ *
+ * Entries are tagged with the grid version they were found on: the first lookup after
+ * any grid change drops the whole cache, so a stale path is never returned.
+ * Not found paths are cached too, each one is accounted as 1 cell.
+ *
+ * All methods are thread-safe.
+ */
+public class PathCache {
+
+    private final long maxCells;
+    private final LinkedHashMap<Long, GridPath> paths = new LinkedHashMap<>(16, 0.75f, true);
+    private long cells;
+    private long version = -1;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public PathCache(long maxCells) {
+        if (maxCells <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxCells);
+        }
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * Returns a cached path, or null if there is no path found on the given grid version.
+     */
+    public synchronized GridPath get(int source, int target, long gridVersion) {
+        invalidateIfChanged(gridVersion);
+        GridPath path = gridVersion == version ? paths.get(key(source, target)) : null;
+        if (path == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return path;
+    }
+
+    public synchronized void put(int source, int target, long gridVersion, GridPath path) {
+        invalidateIfChanged(gridVersion);
+        long weight = weight(path);
+        if (gridVersion != version || weight > maxCells) {
+            // found on an older grid while the grid was changing, or does not fit at all
+            return;
+        }
+        GridPath old = paths.put(key(source, target), path);
+        if (old != null) {
+            cells -= weight(old);
+        }
+        cells += weight;
+        Iterator<Map.Entry<Long, GridPath>> eldest = paths.entrySet().iterator();
+        while (cells > maxCells) {
+            cells -= weight(eldest.next().getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        paths.clear();
+        cells = 0;
+    }
+
+    public synchronized int size() {
+        return paths.size();
+    }
+
+    /**
+     * Total number of cells of cached paths.
+     */
+    public synchronized long cells() {
+        return cells;
+    }
+
+    public long maxCells() {
+        return maxCells;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Number of paths dropped because the cache was full.
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Number of times the cache was dropped because the grid changed.
+     */
+    public synchronized long invalidations() {
+        return invalidations;
+    }
+
+    private void invalidateIfChanged(long gridVersion) {
+        if (gridVersion > version) {
+            if (!paths.isEmpty()) {
+                invalidations++;
+            }
+            clear();
+            version = gridVersion;
+        }
+    }
+
+    private static long key(int source, int target) {
+        return ((long) source << 32) | (target & 0xFFFFFFFFL);
+    }
+
+    private static long weight(GridPath path) {
+        return Math.max(1, path.size());
+    }
+}
@@ -0,0 +1,89 @@
+package cc.graph;
+
+import java.util.Arrays;
+
+/**
+ * Reusable scratch state of a grid search: flat parent / g arrays indexed by cell id and the open list.
+ * Arrays are reset lazily with generation stamps: a cell value is valid only when its stamp equals
+ * the current generation, so starting a new query costs O(1) instead of O(M * N),
+ * and the work of a query is proportional to the cells it actually touches.
+ *
+ * A context is not thread-safe - use one context per thread.
+ */
+public class SearchContext {
+
+    final int capacity;
+    final int[] parent;
+    final double[] g;
+    final IndexedMinHeap openList;
+
+    private final int[] touched; // cell id -> generation when g / parent were written
+    private final int[] closed;  // cell id -> generation when cell was expanded
+    private int generation;
+    private SearchContext reverse;
+
+    // statistics of the current query
+    long expanded;
+    long stalePolls;
+
+    public SearchContext(int capacity) {
+        this.capacity = capacity;
+        this.parent = new int[capacity];
+        this.g = new double[capacity];
+        this.openList = new IndexedMinHeap(capacity);
+        this.touched = new int[capacity];
+        this.closed = new int[capacity];
+    }
+
+    /**
+     * Second context for the backward half of a bidirectional search, allocated on first use.
+     */
+    SearchContext reverse() {
+        if (reverse == null) {
+            reverse = new SearchContext(capacity);
+        }
+        return reverse;
+    }
+
+    /**
+     * Starts a new query: invalidates all values of the previous one.
+     */
+    void reset() {
+        openList.clear();
+        openList.resetCounters();
+        expanded = 0;
+        stalePolls = 0;
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(touched, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+    }
+
+    boolean isTouched(int id) {
+        return touched[id] == generation;
+    }
+
+    double g(int id) {
+        return isTouched(id) ? g[id] : Double.MAX_VALUE;
+    }
+
+    void update(int id, int parentId, double gValue) {
+        touched[id] = generation;
+        parent[id] = parentId;
+        g[id] = gValue;
+    }
+
+    boolean isClosed(int id) {
+        return closed[id] == generation;
+    }
+
+    void close(int id) {
+        if (closed[id] == generation) {
+            stalePolls++;
+        } else {
+            expanded++;
+        }
+        closed[id] = generation;
+    }
+}
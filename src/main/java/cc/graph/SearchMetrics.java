@@ -0,0 +1,162 @@
+package cc.graph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates {@link SearchStats} of many queries into log2 histograms, e.g. to export to monitoring:
+ * register with {@link AStar#setSearchListener(AStar.SearchListener)} and poll {@link #histograms()}.
+ *
+ * Queries answered by the path cache are counted in {@link #cacheHits()} and recorded with zero search counters.
+ * Recording is lock-free, so one instance may be shared by all threads of a batch.
+ */
+public class SearchMetrics implements AStar.SearchListener {
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder found = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final Histogram nanos = new Histogram();
+    private final Histogram expanded = new Histogram();
+    private final Histogram pushes = new Histogram();
+    private final Histogram polls = new Histogram();
+    private final Histogram stalePolls = new Histogram();
+    private final Histogram peakOpenSize = new Histogram();
+    private final Histogram allocatedBytes = new Histogram();
+
+    @Override
+    public void searchCompleted(SearchStats stats) {
+        queries.increment();
+        if (stats.found()) {
+            found.increment();
+        }
+        if (stats.cached()) {
+            cacheHits.increment();
+        }
+        nanos.record(stats.nanos());
+        expanded.record(stats.expanded());
+        pushes.record(stats.pushes());
+        polls.record(stats.polls());
+        stalePolls.record(stats.stalePolls());
+        peakOpenSize.record(stats.peakOpenSize());
+        if (stats.allocatedBytes() >= 0) {
+            allocatedBytes.record(stats.allocatedBytes());
+        }
+    }
+
+    public long queries() {
+        return queries.sum();
+    }
+
+    public long found() {
+        return found.sum();
+    }
+
+    public long cacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Histograms by metric name: nanos, expanded, pushes, polls, stalePolls, peakOpenSize, allocatedBytes.
+     */
+    public Map<String, Histogram> histograms() {
+        Map<String, Histogram> result = new LinkedHashMap<>();
+        result.put("nanos", nanos);
+        result.put("expanded", expanded);
+        result.put("pushes", pushes);
+        result.put("polls", polls);
+        result.put("stalePolls", stalePolls);
+        result.put("peakOpenSize", peakOpenSize);
+        result.put("allocatedBytes", allocatedBytes);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SearchMetrics[queries=").append(queries())
+                .append(", found=").append(found())
+                .append(", cacheHits=").append(cacheHits());
+        histograms().forEach((name, histogram) -> builder.append(", ").append(name).append('=').append(histogram));
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Histogram of non-negative values with power of 2 buckets:
+     * bucket 0 counts value 0, bucket i counts values in [2^(i-1), 2^i).
+     */
+    public static class Histogram {
+
+        public static final int BUCKETS = 64;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            value = Math.max(0, value);
+            buckets.incrementAndGet(bucket(value));
+            sum.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        public long count() {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                count += buckets.get(i);
+            }
+            return count;
+        }
+
+        public long sum() {
+            return sum.sum();
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        public double mean() {
+            long count = count();
+            return count == 0 ? 0.0 : (double) sum() / count;
+        }
+
+        public long bucketCount(int bucket) {
+            return buckets.get(bucket);
+        }
+
+        /**
+         * Exclusive upper bound of values counted by the bucket.
+         */
+        public static long upperBound(int bucket) {
+            return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+        }
+
+        /**
+         * Upper bound of the bucket holding the given quantile, e.g. 0.99, capped by max, 0 if empty.
+         */
+        public long quantile(double quantile) {
+            long count = count();
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return Math.min(i == 0 ? 0 : upperBound(i) - 1, max());
+                }
+            }
+            return 0;
+        }
+
+        static int bucket(long value) {
+            return 64 - Long.numberOfLeadingZeros(value);
+        }
+
+        @Override
+        public String toString() {
+            return "{count=" + count() + ", mean=" + Math.round(mean())
+                    + ", p50=" + quantile(0.5) + ", p99=" + quantile(0.99) + ", max=" + max() + "}";
+        }
+    }
+}
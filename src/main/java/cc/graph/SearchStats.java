@@ -0,0 +1,61 @@
+package cc.graph;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Statistics of a single {@link AStar} query, reported to {@link AStar.SearchListener}.
+ * A query answered by the {@link PathCache} is reported too, with zero search counters.
+ *
+ * @param strategy       node expansion strategy of the query
+ * @param cached         whether the path was taken from the path cache instead of being searched
+ * @param found          whether a path was found
+ * @param steps          number of moves of the found path, 0 if not found
+ * @param expanded       number of expanded (closed) cells
+ * @param pushes         open list pushes, including in-place key updates
+ * @param polls          open list polls
+ * @param stalePolls     polls of already expanded cells, 0 while the open list updates keys in place
+ * @param peakOpenSize   maximal open list size, the sum of both sides for bidirectional search
+ * @param allocatedBytes bytes allocated by the querying thread, -1 if the JVM cannot measure it
+ * @param nanos          wall time of the search
+ */
+public record SearchStats(AStar.Strategy strategy, boolean cached, boolean found, int steps,
+                          long expanded, long pushes, long polls, long stalePolls, int peakOpenSize,
+                          long allocatedBytes, long nanos) {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    static SearchStats of(AStar.Strategy strategy, GridPath path, SearchContext ctx,
+                          long allocatedBytes, long nanos) {
+        long expanded = ctx.expanded;
+        long pushes = ctx.openList.pushes();
+        long polls = ctx.openList.polls();
+        long stalePolls = ctx.stalePolls;
+        int peakOpenSize = ctx.openList.peakSize();
+        if (strategy == AStar.Strategy.BIDIRECTIONAL) {
+            SearchContext reverse = ctx.reverse();
+            expanded += reverse.expanded;
+            pushes += reverse.openList.pushes();
+            polls += reverse.openList.polls();
+            stalePolls += reverse.stalePolls;
+            peakOpenSize += reverse.openList.peakSize();
+        }
+        return new SearchStats(strategy, false, !path.isEmpty(), path.steps(),
+                expanded, pushes, polls, stalePolls, peakOpenSize, allocatedBytes, nanos);
+    }
+
+    static SearchStats cached(AStar.Strategy strategy, GridPath path, long allocatedBytes, long nanos) {
+        return new SearchStats(strategy, true, !path.isEmpty(), path.steps(), 0, 0, 0, 0, 0, allocatedBytes, nanos);
+    }
+
+    /**
+     * Bytes allocated by the current thread so far, -1 if not supported.
+     */
+    static long threadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,171 @@
+package cc.graph;
+
+import java.util.Arrays;
+
+/**
+ * Successive shortest paths over the allowed pairs of a {@link SparseCostMatrix},
+ * see {@link HungarianAlgorithm#solve(SparseCostMatrix)}.
+ *
+ * Potentials u (rows) and v (columns) keep reduced costs c - u - v of allowed pairs non-negative
+ * and zero on matched pairs, so each augmenting path is found by Dijkstra over columns.
+ * Per-search arrays are stamped with a search number instead of being cleared,
+ * so a search costs O(visited pairs) rather than O(rows + cols).
+ */
+class SparseAssignment {
+
+    private final SparseCostMatrix costs;
+    private final long[] u;
+    private final long[] v;
+    private final int[] rowToColumn;
+    private final int[] columnToRow;
+
+    private final long[] dist;    // column -> distance from the searching row
+    private final int[] pred;     // column -> row it was reached from
+    private final int[] seen;     // column -> search number of the last dist update
+    private final int[] settled;  // columns polled by the current search, in poll order
+    private final IndexedMinHeap open;
+
+    SparseAssignment(SparseCostMatrix costs) {
+        this.costs = costs;
+        int rows = costs.rows();
+        int cols = costs.columns();
+        u = new long[rows];
+        v = new long[cols];
+        rowToColumn = new int[rows];
+        columnToRow = new int[cols];
+        Arrays.fill(rowToColumn, HungarianAlgorithm.Assignment.NONE);
+        Arrays.fill(columnToRow, HungarianAlgorithm.Assignment.NONE);
+        dist = new long[cols];
+        pred = new int[cols];
+        seen = new int[cols];
+        settled = new int[cols];
+        open = new IndexedMinHeap(cols);
+    }
+
+    HungarianAlgorithm.Assignment solve() {
+        reduceAndMatchGreedily();
+        for (int row = 0; row < costs.rows(); row++) {
+            if (rowToColumn[row] == HungarianAlgorithm.Assignment.NONE) {
+                augment(row, row + 1);
+            }
+        }
+        long total = 0;
+        for (int row = 0; row < costs.rows(); row++) {
+            int col = rowToColumn[row];
+            if (col != HungarianAlgorithm.Assignment.NONE) {
+                total += pairCost(row, col);
+            }
+        }
+        return new HungarianAlgorithm.Assignment(rowToColumn, total);
+    }
+
+    /**
+     * Row reduction into the potentials, then every row takes a free column of zero reduced cost.
+     * Usually most rows are matched here and only the rest need a search.
+     * Column potentials stay 0 here: a column left free at the end must have v = 0 for the result to be optimal
+     * when columns outnumber rows, and searches only lower v of columns which stay matched.
+     */
+    private void reduceAndMatchGreedily() {
+        for (int row = 0; row < costs.rows(); row++) {
+            long minReduced = Long.MAX_VALUE;
+            int cheapest = HungarianAlgorithm.Assignment.NONE;
+            for (int k = costs.rowStart(row); k < costs.rowEnd(row); k++) {
+                int col = costs.column(k);
+                long reduced = costs.cost(k) - v[col];
+                // free columns win ties
+                if (reduced < minReduced
+                        || reduced == minReduced && columnToRow[col] == HungarianAlgorithm.Assignment.NONE) {
+                    minReduced = reduced;
+                    cheapest = col;
+                }
+            }
+            if (cheapest != HungarianAlgorithm.Assignment.NONE) {
+                u[row] = minReduced;
+                if (columnToRow[cheapest] == HungarianAlgorithm.Assignment.NONE) {
+                    rowToColumn[row] = cheapest;
+                    columnToRow[cheapest] = row;
+                }
+            }
+        }
+    }
+
+    /**
+     * Matches a free row along a shortest augmenting path, leaves it free if there is none.
+     */
+    private void augment(int start, int search) {
+        if (costs.rowStart(start) == costs.rowEnd(start)) {
+            return;
+        }
+        // tightest potential of the new row: its cheapest reduced cost becomes 0
+        long minReduced = Long.MAX_VALUE;
+        for (int k = costs.rowStart(start); k < costs.rowEnd(start); k++) {
+            minReduced = Math.min(minReduced, costs.cost(k) - v[costs.column(k)]);
+        }
+        u[start] = minReduced;
+
+        open.clear();
+        int settledCount = 0;
+        relax(start, 0, search);
+        int target = HungarianAlgorithm.Assignment.NONE;
+        while (!open.isEmpty()) {
+            int col = open.poll();
+            settled[settledCount++] = col;
+            int row = columnToRow[col];
+            if (row == HungarianAlgorithm.Assignment.NONE) {
+                target = col;
+                break;
+            }
+            relax(row, dist[col], search);
+        }
+        if (target == HungarianAlgorithm.Assignment.NONE) {
+            return;
+        }
+
+        // reduced costs stay non-negative and become 0 along the path
+        long length = dist[target];
+        for (int k = 0; k < settledCount; k++) {
+            int col = settled[k];
+            long delta = length - dist[col];
+            v[col] -= delta;
+            if (col != target) {
+                u[columnToRow[col]] += delta;
+            }
+        }
+        u[start] += length;
+
+        int col = target;
+        while (col != HungarianAlgorithm.Assignment.NONE) {
+            int row = pred[col];
+            int previous = rowToColumn[row];
+            rowToColumn[row] = col;
+            columnToRow[col] = row;
+            col = row == start ? HungarianAlgorithm.Assignment.NONE : previous;
+        }
+    }
+
+    private void relax(int row, long rowDist, int search) {
+        for (int k = costs.rowStart(row); k < costs.rowEnd(row); k++) {
+            int col = costs.column(k);
+            long candidate = rowDist + costs.cost(k) - u[row] - v[col];
+            if (seen[col] != search) {
+                seen[col] = search;
+                dist[col] = candidate;
+                pred[col] = row;
+                open.push(col, candidate);
+            } else if (candidate < dist[col] && open.contains(col)) {
+                dist[col] = candidate;
+                pred[col] = row;
+                open.push(col, candidate);
+            }
+        }
+    }
+
+    private long pairCost(int row, int col) {
+        for (int k = costs.rowStart(row); k < costs.rowEnd(row); k++) {
+            if (costs.column(k) == col) {
+                return costs.cost(k);
+            }
+        }
+        throw new IllegalStateException("Pair is not allowed: " + row + ", " + col);
+    }
+}
@@ -0,0 +1,106 @@
+package cc.graph;
+
+/**
+ * Immutable rows x cols cost matrix which stores allowed pairs only, in compressed sparse row (CSR) form:
+ * pairs of row i are at indices [rowStart(i), rowStart(i + 1)) of the column and cost arrays.
+ * Memory is O(rows + pairs), a missing pair is a forbidden assignment rather than an infinite cost.
+ */
+public class SparseCostMatrix {
+
+    private final int rows;
+    private final int cols;
+    private final int[] rowStart; // row -> index of its first pair, rowStart[rows] == pairs
+    private final int[] columns;  // pair -> column
+    private final long[] costs;   // pair -> cost
+
+    /**
+     * Takes ownership of the arrays; a column may appear at most once in a row.
+     */
+    public SparseCostMatrix(int rows, int cols, int[] rowStart, int[] columns, long[] costs) {
+        if (rows < 0 || cols < 0 || rowStart.length != rows + 1 || rowStart[0] != 0
+                || columns.length != costs.length || rowStart[rows] != columns.length) {
+            throw new IllegalArgumentException("Invalid sparse matrix layout");
+        }
+        for (int i = 0; i < rows; i++) {
+            if (rowStart[i + 1] < rowStart[i]) {
+                throw new IllegalArgumentException("Invalid sparse matrix layout");
+            }
+        }
+        int[] lastRow = new int[cols]; // column -> 1 + last row using it
+        for (int i = 0; i < rows; i++) {
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                int j = columns[k];
+                if (j < 0 || j >= cols) {
+                    throw new IllegalArgumentException("Column is out of range: " + j);
+                }
+                if (lastRow[j] == i + 1) {
+                    throw new IllegalArgumentException("Duplicate pair: " + i + ", " + j);
+                }
+                lastRow[j] = i + 1;
+            }
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStart = rowStart;
+        this.columns = columns;
+        this.costs = costs;
+    }
+
+    /**
+     * Builds a matrix from allowed pairs (edgeRows[k], edgeCols[k]) with costs edgeCosts[k], in any order.
+     */
+    public static SparseCostMatrix fromEdges(int rows, int cols, int[] edgeRows, int[] edgeCols, long[] edgeCosts) {
+        if (edgeRows.length != edgeCols.length || edgeRows.length != edgeCosts.length) {
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        }
+        int[] rowStart = new int[rows + 1];
+        for (int row : edgeRows) {
+            if (row < 0 || row >= rows) {
+                throw new IllegalArgumentException("Row is out of range: " + row);
+            }
+            rowStart[row + 1]++;
+        }
+        for (int i = 0; i < rows; i++) {
+            rowStart[i + 1] += rowStart[i];
+        }
+        // counting sort by row
+        int[] next = new int[rows];
+        System.arraycopy(rowStart, 0, next, 0, rows);
+        int[] columns = new int[edgeRows.length];
+        long[] costs = new long[edgeRows.length];
+        for (int k = 0; k < edgeRows.length; k++) {
+            int slot = next[edgeRows[k]]++;
+            columns[slot] = edgeCols[k];
+            costs[slot] = edgeCosts[k];
+        }
+        return new SparseCostMatrix(rows, cols, rowStart, columns, costs);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return cols;
+    }
+
+    public int pairs() {
+        return columns.length;
+    }
+
+    public int rowStart(int row) {
+        return rowStart[row];
+    }
+
+    public int rowEnd(int row) {
+        return rowStart[row + 1];
+    }
+
+    public int column(int pair) {
+        return columns[pair];
+    }
+
+    public long cost(int pair) {
+        return costs[pair];
+    }
+}
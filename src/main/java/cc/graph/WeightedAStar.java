@@ -0,0 +1,166 @@
+package cc.graph;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Stack;
+
+/**
+ * A Star algorithm for weighted terrain ({@link WeightedGrid}), integer arithmetic only:
+ *   - g - sum of costs of entered cells;
+ *   - h - Manhattan distance multiplied by the minimal cell cost (admissible and consistent for 4 moves);
+ *   - open list - {@link BucketQueue}, f-scores of a consistent heuristic never decrease
+ *     and exceed the current minimum by at most maxCost + minCost, so buckets replace heap comparisons.
+ * Path costs are int: grids where cells * maxCost could overflow are rejected, see {@link WeightedGrid#maxCost()}.
+ *
+ * Queries are thread-safe as long as the grid is not modified concurrently.
+ */
+public class WeightedAStar {
+
+    public static final int UNREACHABLE = -1;
+
+    private static final String MSG_COST_OVERFLOW = "Path costs of the grid overflow int";
+
+    private static final int[][] MOVE = new int[][]{
+            {-1, 0}, {0, -1}, {+1, 0}, {0, +1}
+    };
+
+    private final WeightedGrid grid;
+    private final int m;
+    private final int n;
+    private final ThreadLocal<Scratch> scratches;
+
+    public WeightedAStar(WeightedGrid grid) {
+        if (grid == null) {
+            throw new IllegalArgumentException(BitGrid.MSG_INVALID_GRID);
+        }
+        if (!grid.fitsIntPathCosts()) {
+            throw new IllegalArgumentException(MSG_COST_OVERFLOW);
+        }
+        this.grid = grid;
+        this.m = grid.rows();
+        this.n = grid.cols();
+        this.scratches = ThreadLocal.withInitial(() -> new Scratch(m * n));
+    }
+
+    /**
+     * Returns a cheapest path in the same form as {@link AStar#findPath(Point, Point)}.
+     */
+    public Stack<Point> findPath(Point source, Point target) {
+        Stack<Point> result = new Stack<>();
+        Scratch scratch = scratches.get();
+        if (search(source, target, scratch) > 0) {
+            int id = target.x * n + target.y;
+            while (scratch.parent[id] != id) {
+                result.push(new Point(id / n, id % n));
+                id = scratch.parent[id];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns cost of a cheapest path, or {@link #UNREACHABLE}.
+     */
+    public int distance(Point source, Point target) {
+        return search(source, target, scratches.get());
+    }
+
+    private int search(Point source, Point target, Scratch scratch) {
+        if (source == null || target == null || !grid.isFree(source.x, source.y) || !grid.isFree(target.x, target.y)) {
+            return UNREACHABLE;
+        }
+        if (source.equals(target)) {
+            return 0;
+        }
+        if (!grid.fitsIntPathCosts()) {
+            // costs were raised after construction
+            throw new IllegalStateException(MSG_COST_OVERFLOW);
+        }
+        int minCost = grid.minCost();
+        int span = grid.maxCost() + minCost;
+        if (scratch.openList.span() < span) {
+            scratch.openList = new BucketQueue(m * n, span);
+        }
+        scratch.reset();
+        BucketQueue openList = scratch.openList;
+        int sourceId = source.x * n + source.y;
+        int targetId = target.x * n + target.y;
+        scratch.update(sourceId, sourceId, 0);
+        openList.push(sourceId, minCost * (Math.abs(source.x - target.x) + Math.abs(source.y - target.y)));
+
+        while (!openList.isEmpty()) {
+            int p = openList.poll();
+            if (p == targetId) {
+                return scratch.g[p];
+            }
+            scratch.close(p);
+            int px = p / n;
+            int py = p % n;
+            for (int[] move : MOVE) {
+                int x = px + move[0];
+                int y = py + move[1];
+                int cost = grid.cost(x, y);
+                if (cost == WeightedGrid.BLOCKED) {
+                    continue;
+                }
+                int next = x * n + y;
+                if (scratch.isClosed(next)) {
+                    continue;
+                }
+                int G = scratch.g[p] + cost;
+                if (G < scratch.g(next)) {
+                    scratch.update(next, p, G);
+                    openList.push(next, G + minCost * (Math.abs(x - target.x) + Math.abs(y - target.y)));
+                }
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * Per-thread search state with lazy reset by generation stamps, see {@link SearchContext}.
+     */
+    private static class Scratch {
+        private final int[] parent;
+        private final int[] g;
+        private final int[] touched;
+        private final int[] closed;
+        private BucketQueue openList;
+        private int generation;
+
+        private Scratch(int capacity) {
+            parent = new int[capacity];
+            g = new int[capacity];
+            touched = new int[capacity];
+            closed = new int[capacity];
+            openList = new BucketQueue(capacity, 1);
+        }
+
+        private void reset() {
+            openList.clear();
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(touched, 0);
+                Arrays.fill(closed, 0);
+                generation = 1;
+            }
+        }
+
+        private int g(int id) {
+            return touched[id] == generation ? g[id] : Integer.MAX_VALUE;
+        }
+
+        private void update(int id, int parentId, int gValue) {
+            touched[id] = generation;
+            parent[id] = parentId;
+            g[id] = gValue;
+        }
+
+        private boolean isClosed(int id) {
+            return closed[id] == generation;
+        }
+
+        private void close(int id) {
+            closed[id] = generation;
+        }
+    }
+}
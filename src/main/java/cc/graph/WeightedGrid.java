@@ -0,0 +1,140 @@
+package cc.graph;
+
+/**
+ * M x N grid map with integer traversal costs, 1 byte per cell:
+ * 0 - obstacle, 1..255 - cost of entering the cell (e.g. road 1, grass 3, mud 8).
+ */
+public class WeightedGrid {
+
+    public static final int BLOCKED = 0;
+    public static final int MAX_COST = 255;
+
+    private final int rows;
+    private final int cols;
+    private final byte[] costs;
+    // number of cells per cost value, to track min / max cost under updates
+    private final int[] histogram = new int[MAX_COST + 1];
+    private long version;
+
+    /**
+     * Creates a grid with all cells blocked.
+     */
+    public WeightedGrid(int rows, int cols) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(BitGrid.MSG_INVALID_GRID);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.costs = new byte[rows * cols];
+        histogram[BLOCKED] = rows * cols;
+    }
+
+    /**
+     * Unit-cost grid with the same passability as given one.
+     */
+    public static WeightedGrid of(BitGrid grid) {
+        WeightedGrid result = new WeightedGrid(grid.rows(), grid.cols());
+        for (int i = 0; i < result.rows; i++) {
+            for (int j = 0; j < result.cols; j++) {
+                if (grid.isFree(i, j)) {
+                    result.setCost(i, j, 1);
+                }
+            }
+        }
+        return result;
+    }
+
+    public static WeightedGrid of(int[][] costs) {
+        if (costs == null || costs.length == 0 || costs[0] == null) {
+            throw new IllegalArgumentException(BitGrid.MSG_INVALID_GRID);
+        }
+        WeightedGrid result = new WeightedGrid(costs.length, costs[0].length);
+        for (int i = 0; i < result.rows; i++) {
+            if (costs[i] == null || costs[i].length != result.cols) {
+                throw new IllegalArgumentException(BitGrid.MSG_INVALID_GRID);
+            }
+            for (int j = 0; j < result.cols; j++) {
+                result.setCost(i, j, costs[i][j]);
+            }
+        }
+        return result;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * Cost of entering the cell, {@link #BLOCKED} for obstacles and cells outside of the grid.
+     */
+    public int cost(int x, int y) {
+        if (x < 0 || x >= rows || y < 0 || y >= cols) {
+            return BLOCKED;
+        }
+        return costs[x * cols + y] & 0xFF;
+    }
+
+    public boolean isFree(int x, int y) {
+        return cost(x, y) != BLOCKED;
+    }
+
+    public void setCost(int x, int y, int cost) {
+        if (x < 0 || x >= rows || y < 0 || y >= cols) {
+            throw new IndexOutOfBoundsException("Cell (" + x + ", " + y + ") is out of grid");
+        }
+        if (cost < BLOCKED || cost > MAX_COST) {
+            throw new IllegalArgumentException("Cost must be in range [0, " + MAX_COST + "]: " + cost);
+        }
+        int index = x * cols + y;
+        int old = costs[index] & 0xFF;
+        if (old != cost) {
+            histogram[old]--;
+            histogram[cost]++;
+            costs[index] = (byte) cost;
+            version++;
+        }
+    }
+
+    /**
+     * Number of cost changes made since the grid was created.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Minimal cost of an empty cell, or 0 if there are no empty cells.
+     */
+    public int minCost() {
+        for (int cost = 1; cost <= MAX_COST; cost++) {
+            if (histogram[cost] > 0) {
+                return cost;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Maximal cost of an empty cell, or 0 if there are no empty cells.
+     */
+    public int maxCost() {
+        for (int cost = MAX_COST; cost > 0; cost--) {
+            if (histogram[cost] > 0) {
+                return cost;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Whether the cost of any path plus a Manhattan estimate of at most maxCost per step fits into int,
+     * searches keep path costs in int and reject grids for which it does not.
+     */
+    boolean fitsIntPathCosts() {
+        return ((long) rows * cols + rows + cols) * maxCost() <= Integer.MAX_VALUE;
+    }
+}
@@ -1,5 +1,6 @@
 package cc.graph;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -13,6 +14,9 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.lang3.time.StopWatch;
 import org.junit.jupiter.api.BeforeEach;
@@ -73,6 +77,125 @@ public class AStarTest {
         assertTrue(case1.answerIsValid());
     }
 
+    @Test
+    public void shouldReuseSearchContextAcrossQueries() throws URISyntaxException, IOException {
+        InOut case1 = new InOut(CASE_1);
+        AStar testInstance = new AStar(case1.grid);
+        SearchContext context = testInstance.newSearchContext();
+        Point[][] queries = {
+                {SOURCE_1, TARGET_1}, {TARGET_1, SOURCE_1}, {new Point(0, 0), new Point(8, 42)}, {SOURCE_1, TARGET_1}
+        };
+        for (Point[] query : queries) {
+            List<Point> expected = new AStar(case1.grid).findPath(query[0], query[1]);
+            List<Point> actual = testInstance.findPath(query[0], query[1], context);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void shouldFindSamePathLengthWithJumpPoints() throws URISyntaxException, IOException {
+        for (String caseFile : new String[]{CASE_1, CASE_2}) {
+            InOut inOut = new InOut(caseFile);
+            AStar testInstance = new AStar(inOut.grid);
+            List<Point> expected = testInstance.findPath(SOURCE_1, TARGET_1);
+            List<Point> actual = testInstance.findPath(SOURCE_1, TARGET_1, AStar.Strategy.JUMP_POINT);
+            assertEquals(expected.size(), actual.size());
+            assertValidPath(inOut.grid, SOURCE_1, TARGET_1, actual);
+        }
+    }
+
+    @Test
+    public void shouldFindSamePathLengthWithJumpPointsOnRandomGrids() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            // wider than 64 columns to cross bitset word boundaries
+            char[][] grid = randomGrid(random, 20 + random.nextInt(30), 60 + random.nextInt(100), 0.3);
+            AStar testInstance = new AStar(grid);
+            for (int query = 0; query < 20; query++) {
+                Point source = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                Point target = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                List<Point> expected = testInstance.findPath(source, target);
+                List<Point> actual = testInstance.findPath(source, target, AStar.Strategy.JUMP_POINT);
+                assertEquals(expected.size(), actual.size());
+                if (!actual.isEmpty()) {
+                    assertValidPath(grid, source, target, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindSamePathLengthBidirectionally() throws URISyntaxException, IOException {
+        InOut case1 = new InOut(CASE_1);
+        AStar testInstance = new AStar(case1.grid);
+        List<Point> steps = testInstance.findPath(SOURCE_1, TARGET_1, AStar.Strategy.BIDIRECTIONAL);
+        assertEquals(testInstance.findPath(SOURCE_1, TARGET_1).size(), steps.size());
+        assertValidPath(case1.grid, SOURCE_1, TARGET_1, steps);
+
+        Random random = new Random(19);
+        for (int round = 0; round < 30; round++) {
+            char[][] grid = randomGrid(random, 10 + random.nextInt(40), 10 + random.nextInt(80), 0.3);
+            testInstance = new AStar(grid);
+            for (int query = 0; query < 20; query++) {
+                Point source = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                Point target = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                List<Point> expected = testInstance.findPath(source, target);
+                List<Point> actual = testInstance.findPath(source, target, AStar.Strategy.BIDIRECTIONAL);
+                assertEquals(expected.size(), actual.size());
+                if (!actual.isEmpty()) {
+                    assertValidPath(grid, source, target, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldAnswerBatchInQueryOrder() {
+        Random random = new Random(13);
+        char[][] grid = randomGrid(random, 60, 90, 0.25);
+        AStar testInstance = new AStar(grid);
+        List<AStar.Query> queries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            queries.add(new AStar.Query(new Point(random.nextInt(60), random.nextInt(90)),
+                    new Point(random.nextInt(60), random.nextInt(90))));
+        }
+
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            for (AStar.Strategy strategy : AStar.Strategy.values()) {
+                List<Stack<Point>> results = testInstance.findPaths(queries, strategy, pool);
+                assertEquals(queries.size(), results.size());
+                for (int i = 0; i < queries.size(); i++) {
+                    AStar.Query query = queries.get(i);
+                    assertEquals(testInstance.findPath(query.source(), query.target(), strategy), results.get(i));
+                }
+            }
+        }
+    }
+
+    static char[][] randomGrid(Random random, int m, int n, double obstacles) {
+        char[][] grid = new char[m][n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                grid[i][j] = random.nextDouble() < obstacles ? BitGrid.OBSTACLE : BitGrid.EMPTY;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Steps go from target (bottom of the stack) back to the first cell after source.
+     */
+    static void assertValidPath(char[][] grid, Point source, Point target, List<Point> steps) {
+        assertEquals(target, steps.get(0));
+        Point previous = source;
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            Point step = steps.get(i);
+            assertEquals(BitGrid.EMPTY, grid[step.x][step.y]);
+            assertEquals(1, Math.abs(step.x - previous.x) + Math.abs(step.y - previous.y));
+            previous = step;
+        }
+    }
+
     private static class InOut {
 
 
@@ -0,0 +1,62 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuctionAssignmentTest {
+
+    @Test
+    void testMatchesHungarianAlgorithm() {
+        Random random = new Random(73);
+        for (int round = 0; round < 300; round++) {
+            int n = random.nextInt(12);
+            int bound = round % 3 == 0 ? 5 : 100_000;
+            int[][] cost = randomMatrix(random, n, bound);
+
+            HungarianAlgorithm.Assignment assignment = AuctionAssignment.solve(cost);
+
+            assertEquals(HungarianAlgorithm.solve(cost).totalCost(), assignment.totalCost());
+            assertIsPermutation(assignment.rowToColumn());
+        }
+    }
+
+    @Test
+    void testBidsInParallelOnLargeMatrices() {
+        Random random = new Random(79);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n : new int[]{200, 400}) {
+                int[][] cost = randomMatrix(random, n, 1_000_000);
+
+                HungarianAlgorithm.Assignment assignment = AuctionAssignment.solve(CostMatrix.of(cost), pool);
+
+                assertEquals(HungarianAlgorithm.solve(cost).totalCost(), assignment.totalCost());
+                assertIsPermutation(assignment.rowToColumn());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int[][] randomMatrix(Random random, int n, int bound) {
+        int[][] cost = new int[n][n];
+        for (int[] row : cost) {
+            for (int j = 0; j < n; j++) {
+                row[j] = random.nextInt(bound) - bound / 4;
+            }
+        }
+        return cost;
+    }
+
+    private static void assertIsPermutation(int[] assignment) {
+        boolean[] seen = new boolean[assignment.length];
+        for (int col : assignment) {
+            assertFalse(seen[col]);
+            seen[col] = true;
+        }
+    }
+}
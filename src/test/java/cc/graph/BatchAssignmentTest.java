@@ -0,0 +1,56 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchAssignmentTest {
+
+    @Test
+    void testSolvesBatchInOrder() {
+        Random random = new Random(89);
+        List<int[][]> matrices = new ArrayList<>();
+        for (int k = 0; k < 200; k++) {
+            // mixed sizes, so that work arrays are reused for both smaller and larger matrices
+            int n = 1 + random.nextInt(40);
+            int[][] cost = new int[n][n];
+            for (int[] row : cost) {
+                for (int j = 0; j < n; j++) {
+                    row[j] = random.nextInt(1000);
+                }
+            }
+            matrices.add(cost);
+        }
+
+        try (BatchAssignment testInstance = new BatchAssignment(3)) {
+            assertEquals(3, testInstance.parallelism());
+            BatchAssignment.Result result = testInstance.solve(matrices);
+
+            assertEquals(matrices.size(), result.size());
+            for (int k = 0; k < matrices.size(); k++) {
+                HungarianAlgorithm.Assignment expected = HungarianAlgorithm.solve(matrices.get(k));
+                assertEquals(expected.totalCost(), result.assignments().get(k).totalCost());
+            }
+            assertTrue(result.nanos() > 0);
+            assertTrue(result.throughput() > 0);
+            assertTrue(result.latency(0.5) <= result.latency(0.99));
+            assertTrue(result.latency(0.99) <= result.maxLatency());
+            assertEquals(result.sortedLatencies()[0], result.latency(0));
+        }
+    }
+
+    @Test
+    void testEmptyBatch() {
+        try (BatchAssignment testInstance = new BatchAssignment(1)) {
+            BatchAssignment.Result result = testInstance.solve(List.of());
+
+            assertEquals(0, result.size());
+            assertEquals(0, result.latency(0.99));
+            assertThrows(IllegalArgumentException.class, () -> result.latency(1.5));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CostMatrixFilesTest {
+
+    @Test
+    void testReadTextInputFile() throws IOException {
+        int[][] matrix;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("hungarian_input_3.txt")) {
+            matrix = CostMatrixFiles.readText(in);
+        }
+
+        assertEquals(3, matrix.length);
+        assertArrayEquals(new int[]{10000, 40001, 90004}, matrix[0]);
+        assertArrayEquals(new int[]{10001, 40000, 90001}, matrix[1]);
+    }
+
+    @Test
+    void testReadTextParsesSignsAndSpacing() throws IOException {
+        byte[] input = "2\r\n  -5\t+7\n2147483647 -2147483648\n\n".getBytes(StandardCharsets.US_ASCII);
+        int[][] matrix = CostMatrixFiles.readText(new ByteArrayInputStream(input));
+
+        assertArrayEquals(new int[]{-5, 7}, matrix[0]);
+        assertArrayEquals(new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE}, matrix[1]);
+    }
+
+    @Test
+    void testReadTextRejectsInvalidInput() {
+        for (String input : new String[]{"2\n1 2\n3", "1\n2147483648", "1\n12a", "1\n-"}) {
+            byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+            assertThrows(IOException.class, () -> CostMatrixFiles.readText(new ByteArrayInputStream(bytes)));
+        }
+    }
+
+    @Test
+    void testReadTextRejectsNonAsciiByte() {
+        // 0xFF must not be taken for the end of input, which would split "12" into two numbers
+        byte[] bytes = {'2', '\n', '1', (byte) 0xFF, '2', ' ', '3', '\n', '4', ' ', '5', '\n'};
+        assertThrows(IOException.class, () -> CostMatrixFiles.readText(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    void testBinaryRoundTrip() throws IOException {
+        Random random = new Random(67);
+        int n = 150;
+        int[][] matrix = new int[n][n];
+        StringBuilder text = new StringBuilder().append(n).append('\n');
+        for (int[] row : matrix) {
+            for (int j = 0; j < n; j++) {
+                row[j] = random.nextInt();
+                text.append(row[j]).append(j + 1 < n ? ' ' : '\n');
+            }
+        }
+
+        Path textFile = Files.createTempFile("costs", ".txt");
+        Path binaryFile = Files.createTempFile("costs", ".bin");
+        try {
+            Files.writeString(textFile, text);
+            int[][] parsed = CostMatrixFiles.readText(textFile);
+            CostMatrixFiles.writeBinary(parsed, binaryFile);
+            int[][] loaded = CostMatrixFiles.mapBinary(binaryFile);
+
+            assertEquals(n, loaded.length);
+            for (int i = 0; i < n; i++) {
+                assertArrayEquals(matrix[i], parsed[i]);
+                assertArrayEquals(matrix[i], loaded[i]);
+            }
+        } finally {
+            Files.delete(textFile);
+            Files.delete(binaryFile);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CostMatrixTest {
+
+    @Test
+    void testReductionsMatchNaive() {
+        Random random = new Random(71);
+        for (boolean offHeap : new boolean[]{false, true}) {
+            assertReductionsMatchNaive(random, 37, offHeap);
+        }
+    }
+
+    @Test
+    void testParallelRowBlocksMatchNaive() {
+        Random random = new Random(79);
+        // 600 x 600 cells are processed in parallel row blocks
+        for (boolean offHeap : new boolean[]{false, true}) {
+            assertReductionsMatchNaive(random, 600, offHeap);
+        }
+    }
+
+    @Test
+    void testSolveFlatMatrix() {
+        Random random = new Random(73);
+        int[][] matrix = randomMatrix(random, 60);
+        long expected = HungarianAlgorithm.solve(matrix).totalCost();
+
+        assertEquals(expected, HungarianAlgorithm.solve(copyOf(matrix, false)).totalCost());
+        assertEquals(expected, HungarianAlgorithm.solve(copyOf(matrix, true)).totalCost());
+    }
+
+    private static void assertReductionsMatchNaive(Random random, int n, boolean offHeap) {
+        int[][] expected = randomMatrix(random, n);
+        CostMatrix testInstance = copyOf(expected, offHeap);
+        assertEquals(offHeap, testInstance.isOffHeap());
+
+        for (int[] row : expected) {
+            int min = Integer.MAX_VALUE;
+            for (int value : row) {
+                min = Math.min(min, value);
+            }
+            for (int j = 0; j < n; j++) {
+                row[j] -= min;
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            int min = Integer.MAX_VALUE;
+            for (int[] row : expected) {
+                min = Math.min(min, row[j]);
+            }
+            for (int[] row : expected) {
+                row[j] -= min;
+            }
+        }
+        testInstance.reduceRows();
+        testInstance.reduceColumns();
+        assertMatrixEquals(expected, testInstance);
+
+        BitSet coveredRows = new BitSet(n);
+        BitSet coveredCols = new BitSet(n);
+        for (int k = 0; k < n; k++) {
+            coveredRows.set(k, random.nextInt(3) == 0);
+            coveredCols.set(k, random.nextInt(3) == 0);
+        }
+        int h = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (!coveredRows.get(i) && !coveredCols.get(j)) {
+                    h = Math.min(h, expected[i][j]);
+                }
+            }
+        }
+        assertEquals(h, testInstance.minUncovered(coveredRows, coveredCols));
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (coveredRows.get(i) && coveredCols.get(j)) {
+                    expected[i][j] += h;
+                } else if (!coveredRows.get(i) && !coveredCols.get(j)) {
+                    expected[i][j] -= h;
+                }
+            }
+        }
+        testInstance.adjust(h, coveredRows, coveredCols);
+        assertMatrixEquals(expected, testInstance);
+    }
+
+    private static int[][] randomMatrix(Random random, int n) {
+        int[][] matrix = new int[n][n];
+        for (int[] row : matrix) {
+            for (int j = 0; j < n; j++) {
+                row[j] = random.nextInt(1000);
+            }
+        }
+        return matrix;
+    }
+
+    private static CostMatrix copyOf(int[][] matrix, boolean offHeap) {
+        CostMatrix result = new CostMatrix(matrix.length, offHeap);
+        for (int i = 0; i < matrix.length; i++) {
+            result.setRow(i, matrix[i]);
+        }
+        return result;
+    }
+
+    private static void assertMatrixEquals(int[][] expected, CostMatrix actual) {
+        assertEquals(expected.length, actual.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual.row(i));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DStarLiteTest {
+
+    @Test
+    void testFindsShortestPath() {
+        char[][] grid = {
+                "-----".toCharArray(),
+                "-###-".toCharArray(),
+                "---#-".toCharArray(),
+        };
+        Point source = new Point(2, 0);
+        Point target = new Point(2, 4);
+        try (DStarLite testInstance = new DStarLite(BitGrid.of(grid), source, target)) {
+            List<Point> steps = testInstance.findPath();
+            assertEquals(8, steps.size());
+            AStarTest.assertValidPath(grid, source, target, steps);
+        }
+    }
+
+    @Test
+    void testRepairsPathAfterGridChanges() {
+        Random random = new Random(3);
+        for (int round = 0; round < 10; round++) {
+            char[][] grid = AStarTest.randomGrid(random, 20 + random.nextInt(20), 20 + random.nextInt(40), 0.25);
+            AStar astar = new AStar(grid);
+            Point source = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+            Point target = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+            try (DStarLite testInstance = new DStarLite(astar.grid(), source, target)) {
+                for (int change = 0; change < 30; change++) {
+                    List<Point> expected = astar.findPath(source, target);
+                    List<Point> actual = testInstance.findPath();
+                    assertEquals(expected.size(), actual.size());
+                    if (!actual.isEmpty()) {
+                        AStarTest.assertValidPath(grid, source, target, actual);
+                    }
+
+                    Point cell = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                    boolean blocked = grid[cell.x][cell.y] == BitGrid.EMPTY;
+                    grid[cell.x][cell.y] = blocked ? BitGrid.OBSTACLE : BitGrid.EMPTY;
+                    astar.setBlocked(cell, blocked);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFollowsAgentMoves() {
+        Random random = new Random(8);
+        char[][] grid = AStarTest.randomGrid(random, 30, 50, 0.2);
+        AStar astar = new AStar(grid);
+        Point target = new Point(29, 49);
+        Point agent = new Point(0, 0);
+        grid[0][0] = BitGrid.EMPTY;
+        grid[29][49] = BitGrid.EMPTY;
+        astar.setBlocked(agent, false);
+        astar.setBlocked(target, false);
+        try (DStarLite testInstance = new DStarLite(astar.grid(), agent, target)) {
+            List<Point> steps = testInstance.findPath();
+            while (!steps.isEmpty()) {
+                assertEquals(astar.findPath(agent, target).size(), steps.size());
+                agent = steps.get(steps.size() - 1);
+                testInstance.moveTo(agent);
+                // block a random cell off the agent's way
+                Point cell = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                if (!cell.equals(agent) && !cell.equals(target)) {
+                    grid[cell.x][cell.y] = BitGrid.OBSTACLE;
+                    astar.setBlocked(cell, true);
+                }
+                steps = testInstance.findPath();
+            }
+            assertTrue(agent.equals(target) || astar.findPath(agent, target).isEmpty());
+        }
+    }
+}
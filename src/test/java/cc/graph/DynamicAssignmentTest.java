@@ -0,0 +1,99 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicAssignmentTest {
+
+    @Test
+    void testSolvesRectangularMatrix() {
+        long[][] costs = {
+                {4, 1, 3},
+                {2, 0, 5},
+        };
+        DynamicAssignment testInstance = new DynamicAssignment(costs);
+
+        assertEquals(2, testInstance.rows());
+        assertEquals(3, testInstance.columns());
+        assertEquals(3, testInstance.totalCost());
+        assertEquals(1, testInstance.columnOf(0));
+        assertEquals(0, testInstance.columnOf(1));
+        assertEquals(DynamicAssignment.NONE, testInstance.rowOf(2));
+    }
+
+    @Test
+    void testStaysOptimalUnderChanges() {
+        Random random = new Random(79);
+        long[][] initial = new long[6][8];
+        for (long[] row : initial) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = random.nextInt(100);
+            }
+        }
+        DynamicAssignment testInstance = new DynamicAssignment(initial);
+        List<Integer> rows = new ArrayList<>(List.of(0, 1, 2, 3, 4, 5));
+        List<Integer> cols = new ArrayList<>(List.of(0, 1, 2, 3, 4, 5, 6, 7));
+
+        for (int step = 0; step < 500; step++) {
+            long before = testInstance.augmentations();
+            switch (random.nextInt(7)) {
+                case 0 -> testInstance.updateRow(pick(random, rows), j -> random.nextInt(100));
+                case 1 -> testInstance.updateColumn(pick(random, cols), i -> random.nextInt(100));
+                case 2 -> testInstance.setCost(pick(random, rows), pick(random, cols), random.nextInt(100));
+                case 3 -> rows.add(testInstance.addRow(j -> random.nextInt(100)));
+                case 4 -> cols.add(testInstance.addColumn(i -> random.nextInt(100)));
+                case 5 -> {
+                    if (rows.size() > 1) {
+                        testInstance.removeRow(rows.remove(random.nextInt(rows.size())));
+                    }
+                }
+                default -> {
+                    if (cols.size() > 1) {
+                        testInstance.removeColumn(cols.remove(random.nextInt(cols.size())));
+                    }
+                }
+            }
+            assertTrue(testInstance.augmentations() - before <= 1);
+            assertEquals(rows.size(), testInstance.rows());
+            assertEquals(cols.size(), testInstance.columns());
+            assertEquals(optimum(testInstance, rows, cols), testInstance.totalCost());
+            assertConsistent(testInstance, rows, cols);
+        }
+    }
+
+    private static int pick(Random random, List<Integer> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static long optimum(DynamicAssignment assignment, List<Integer> rows, List<Integer> cols) {
+        int n = Math.max(rows.size(), cols.size());
+        long[][] square = new long[n][n];
+        for (int i = 0; i < rows.size(); i++) {
+            for (int j = 0; j < cols.size(); j++) {
+                square[i][j] = assignment.cost(rows.get(i), cols.get(j));
+            }
+        }
+        return HungarianAlgorithm.solve(square).totalCost();
+    }
+
+    private static void assertConsistent(DynamicAssignment assignment, List<Integer> rows, List<Integer> cols) {
+        int assigned = 0;
+        long total = 0;
+        for (int row : rows) {
+            int col = assignment.columnOf(row);
+            if (col != DynamicAssignment.NONE) {
+                assertEquals(row, assignment.rowOf(col));
+                assertTrue(cols.contains(col));
+                total += assignment.cost(row, col);
+                assigned++;
+            }
+        }
+        assertEquals(Math.min(rows.size(), cols.size()), assigned);
+        assertEquals(total, assignment.totalCost());
+    }
+}
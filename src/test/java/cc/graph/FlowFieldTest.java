@@ -0,0 +1,67 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlowFieldTest {
+
+    @Test
+    void testDistancesMatchAStar() {
+        Random random = new Random(31);
+        char[][] grid = AStarTest.randomGrid(random, 30, 50, 0.25);
+        Point target = new Point(15, 25);
+        grid[target.x][target.y] = BitGrid.EMPTY;
+        AStar astar = new AStar(grid);
+        FlowField testInstance = astar.flowField(target);
+
+        for (int x = 0; x < 30; x++) {
+            for (int y = 0; y < 50; y++) {
+                Point agent = new Point(x, y);
+                GridPath expected = astar.findGridPath(agent, target);
+                GridPath actual = testInstance.path(agent);
+                assertEquals(expected.steps(), actual.steps());
+                if (!actual.isEmpty()) {
+                    assertEquals(actual.steps(), testInstance.distance(x, y));
+                    AStarTest.assertValidPath(grid, agent, target, actual.toStack());
+                } else if (!agent.equals(target)) {
+                    assertEquals(FlowField.NONE, testInstance.next(x, y));
+                }
+            }
+        }
+        assertEquals(0, testInstance.distance(target.x, target.y));
+        assertEquals(FlowField.NONE, testInstance.next(target.x, target.y));
+    }
+
+    @Test
+    void testWeightedDistancesMatchWeightedAStar() {
+        Random random = new Random(37);
+        int[][] costs = new int[25][40];
+        for (int[] row : costs) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = random.nextInt(5) == 0 ? WeightedGrid.BLOCKED : 1 + random.nextInt(9);
+            }
+        }
+        Point target = new Point(3, 30);
+        costs[target.x][target.y] = 1;
+        WeightedGrid grid = WeightedGrid.of(costs);
+        WeightedAStar astar = new WeightedAStar(grid);
+        FlowField testInstance = FlowField.of(grid, target);
+
+        for (int x = 0; x < 25; x++) {
+            for (int y = 0; y < 40; y++) {
+                int expected = astar.distance(new Point(x, y), target);
+                assertEquals(expected, testInstance.distance(x, y));
+                GridPath path = testInstance.path(new Point(x, y));
+                int pathCost = 0;
+                for (int i = 1; i < path.size(); i++) {
+                    pathCost += costs[path.x(i)][path.y(i)];
+                }
+                assertEquals(Math.max(expected, 0), pathCost);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GridFilesTest {
+
+    private static final String CASE_1 = "graph/a_star_case1.txt";
+
+    @Test
+    void testReadTextStopsAtEmptyLine() throws IOException {
+        BitGrid grid = readResource(CASE_1);
+
+        assertEquals(9, grid.rows());
+        assertEquals(43, grid.cols());
+        assertTrue(grid.isFree(0, 0));
+        assertFalse(grid.isFree(1, 12));
+        assertFalse(grid.isFree(2, 26));
+        assertTrue(grid.isFree(8, 42));
+        assertFalse(grid.isFree(9, 0));
+    }
+
+    @Test
+    void testReadTextMatchesCharMatrix() throws IOException {
+        char[][] chars = {
+                "-#-".toCharArray(),
+                "##-".toCharArray(),
+        };
+        BitGrid expected = BitGrid.of(chars);
+        BitGrid actual = GridFiles.readText(new ByteArrayInputStream("-#-\r\n##-".getBytes(StandardCharsets.US_ASCII)));
+
+        assertEquals(expected.rows(), actual.rows());
+        assertEquals(expected.cols(), actual.cols());
+        assertArrayEquals(expected.bits(), actual.bits());
+    }
+
+    @Test
+    void testReadTextRejectsRaggedRows() {
+        byte[] input = "---\n--\n".getBytes(StandardCharsets.US_ASCII);
+        assertThrows(IOException.class, () -> GridFiles.readText(new ByteArrayInputStream(input)));
+    }
+
+    @Test
+    void testBinaryRoundTrip() throws IOException {
+        // wider than one word to check row alignment
+        BitGrid grid = new BitGrid(3, 130);
+        grid.setFree(0, 0, true);
+        grid.setFree(1, 64, true);
+        grid.setFree(2, 129, true);
+
+        Path file = Files.createTempFile("grid", ".bin");
+        try {
+            GridFiles.writeBinary(grid, file);
+            BitGrid loaded = GridFiles.mapBinary(file);
+
+            assertEquals(3, loaded.rows());
+            assertEquals(130, loaded.cols());
+            assertArrayEquals(grid.bits(), loaded.bits());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testLoadedGridFindsSamePath() throws IOException {
+        BitGrid grid = readResource(CASE_1);
+        char[][] chars = new char[grid.rows()][grid.cols()];
+        for (int i = 0; i < grid.rows(); i++) {
+            for (int j = 0; j < grid.cols(); j++) {
+                chars[i][j] = grid.isFree(i, j) ? BitGrid.EMPTY : BitGrid.OBSTACLE;
+            }
+        }
+        Point source = new Point(3, 1);
+        Point target = new Point(6, 38);
+
+        assertEquals(new AStar(chars).findPath(source, target), new AStar(grid).findPath(source, target));
+    }
+
+    private BitGrid readResource(String name) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+            return GridFiles.readText(in);
+        }
+    }
+}
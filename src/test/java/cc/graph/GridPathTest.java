@@ -0,0 +1,64 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GridPathTest {
+
+    @Test
+    void testPacksCellsFromSourceToTarget() {
+        char[][] grid = {
+                "---".toCharArray(),
+                "##-".toCharArray(),
+        };
+        GridPath path = new AStar(grid).findGridPath(new Point(0, 0), new Point(1, 2));
+
+        assertEquals(3, path.steps());
+        assertArrayEquals(new int[]{0, 1, 2, 5}, path.toArray());
+        assertEquals(1, path.x(3));
+        assertEquals(2, path.y(3));
+
+        PrimitiveIterator.OfInt iterator = path.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            assertEquals(path.cell(count++), iterator.nextInt());
+        }
+        assertEquals(path.size(), count);
+    }
+
+    @Test
+    void testEmptyWhenNotFound() {
+        char[][] grid = {
+                "-#-".toCharArray(),
+        };
+        GridPath path = new AStar(grid).findGridPath(new Point(0, 0), new Point(0, 2));
+
+        assertTrue(path.isEmpty());
+        assertEquals(0, path.steps());
+        assertTrue(path.toStack().isEmpty());
+    }
+
+    @Test
+    void testConvertsToSameStackAsFindPath() {
+        Random random = new Random(29);
+        char[][] grid = AStarTest.randomGrid(random, 30, 80, 0.25);
+        AStar testInstance = new AStar(grid);
+        for (int query = 0; query < 50; query++) {
+            Point source = new Point(random.nextInt(30), random.nextInt(80));
+            Point target = new Point(random.nextInt(30), random.nextInt(80));
+            for (AStar.Strategy strategy : AStar.Strategy.values()) {
+                GridPath path = testInstance.findGridPath(source, target, strategy);
+                List<Point> steps = testInstance.findPath(source, target, strategy);
+                assertEquals(steps, path.toStack());
+                assertEquals(steps.size(), path.steps());
+                assertEquals(path, GridPath.of(path.cols(), path.toArray()));
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalAStarTest {
+
+    @Test
+    void testFindsValidNearOptimalPaths() {
+        Random random = new Random(11);
+        long optimal = 0;
+        long found = 0;
+        for (int round = 0; round < 30; round++) {
+            char[][] grid = AStarTest.randomGrid(random, 20 + random.nextInt(40), 20 + random.nextInt(80), 0.25);
+            BitGrid bitGrid = BitGrid.of(grid);
+            AStar astar = new AStar(bitGrid);
+            HierarchicalAStar testInstance = new HierarchicalAStar(bitGrid, 4 + random.nextInt(8));
+            for (int query = 0; query < 20; query++) {
+                Point source = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                Point target = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                List<Point> expected = astar.findPath(source, target);
+                List<Point> actual = testInstance.findPath(source, target);
+                assertEquals(expected.isEmpty(), actual.isEmpty());
+                if (!actual.isEmpty()) {
+                    AStarTest.assertValidPath(grid, source, target, actual);
+                    assertTrue(actual.size() >= expected.size());
+                    optimal += expected.size();
+                    found += actual.size();
+                }
+            }
+        }
+        assertTrue(found <= optimal * 1.1, "paths are too long: " + found + " vs " + optimal);
+    }
+
+    @Test
+    void testFindsPathInsideSingleCluster() {
+        char[][] grid = {
+                "------".toCharArray(),
+                "-####-".toCharArray(),
+                "------".toCharArray(),
+        };
+        HierarchicalAStar testInstance = new HierarchicalAStar(BitGrid.of(grid), 8);
+        List<Point> steps = testInstance.findPath(new Point(0, 0), new Point(2, 5));
+
+        assertEquals(7, steps.size());
+        AStarTest.assertValidPath(grid, new Point(0, 0), new Point(2, 5), steps);
+    }
+
+    @Test
+    void testUnreachableTargetGivesEmptyPath() {
+        char[][] grid = {
+                "--------".toCharArray(),
+                "-----###".toCharArray(),
+                "-----#--".toCharArray(),
+                "-----#--".toCharArray(),
+        };
+        HierarchicalAStar testInstance = new HierarchicalAStar(BitGrid.of(grid), 2);
+
+        assertTrue(testInstance.findPath(new Point(0, 0), new Point(3, 7)).isEmpty());
+        assertFalse(testInstance.findPath(new Point(0, 0), new Point(3, 4)).isEmpty());
+    }
+
+    @Test
+    void testCellChangesMatchRebuild() {
+        Random random = new Random(5);
+        char[][] grid = AStarTest.randomGrid(random, 40, 70, 0.2);
+        BitGrid bitGrid = BitGrid.of(grid);
+        try (HierarchicalAStar testInstance = new HierarchicalAStar(bitGrid, 8)) {
+            for (int change = 0; change < 50; change++) {
+                // several changes between queries, some of them in the same cluster
+                for (int k = 0; k < 1 + change % 3; k++) {
+                    int x = random.nextInt(grid.length);
+                    int y = random.nextInt(grid[0].length);
+                    grid[x][y] = grid[x][y] == BitGrid.EMPTY ? BitGrid.OBSTACLE : BitGrid.EMPTY;
+                    bitGrid.setFree(x, y, grid[x][y] == BitGrid.EMPTY);
+                }
+
+                try (HierarchicalAStar rebuilt = new HierarchicalAStar(bitGrid, 8)) {
+                    assertEquals(rebuilt.abstractNodeCount(), testInstance.abstractNodeCount());
+                    Point source = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                    Point target = new Point(random.nextInt(grid.length), random.nextInt(grid[0].length));
+                    assertEquals(rebuilt.findPath(source, target), testInstance.findPath(source, target));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HopcroftKarpTest {
+
+    @Test
+    void testEmptyGraph() {
+        List<Integer>[] graph = createGraph(0, new int[][]{});
+        HopcroftKarp solver = new HopcroftKarp(0, 0, graph);
+        var result = solver.findMaxBipartiteMatching();
+        assertEquals(0, result.m);
+    }
+
+    @Test
+    void testMaximumMatching_AugmentingPathRequired() {
+        // V={0, 1}, W={0, 1}. Edges: (0, 0), (1, 0), (0, 1)
+        int[][] edges = {{0, 0}, {1, 0}, {0, 1}};
+        List<Integer>[] graph = createGraph(2, edges);
+        HopcroftKarp solver = new HopcroftKarp(2, 2, graph);
+        var result = solver.findMaxBipartiteMatching();
+
+        assertEquals(2, result.m);
+
+        assertEquals(1, result.matchedWToV[0]); // w0 -> v1
+        assertEquals(0, result.matchedWToV[1]); // w1 -> v0
+    }
+
+    @Test
+    void testSameSizeAsKuhnAlgorithm() {
+        Random random = new Random(97);
+        for (int round = 0; round < 300; round++) {
+            int nV = random.nextInt(30);
+            int nW = random.nextInt(30);
+            List<int[]> edges = new ArrayList<>();
+            for (int v = 0; v < nV; v++) {
+                for (int w = 0; w < nW; w++) {
+                    if (random.nextInt(8) == 0) {
+                        edges.add(new int[]{v, w});
+                    }
+                }
+            }
+            List<Integer>[] graph = createGraph(nV, edges.toArray(new int[0][]));
+
+            var expected = new KuhnAlgorithm(nV, nW, graph).findMaxBipartiteMatching();
+            var result = new HopcroftKarp(nV, nW, graph).findMaxBipartiteMatching();
+
+            assertEquals(expected.m, result.m);
+            assertIsMatching(graph, result);
+        }
+    }
+
+    @Test
+    void testReusedSolversMatchFreshOnes() {
+        int n = 20;
+        Random random = new Random(11);
+        // one buffer for all graphs, longer than any of them
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[n * n];
+        KuhnAlgorithm kuhn = null;
+        HopcroftKarp hopcroftKarp = null;
+        for (int round = 0; round < 100; round++) {
+            int[][] edges = randomEdges(random, n);
+            List<Integer>[] graph = createGraph(n, edges);
+            int k = 0;
+            for (int v = 0; v < n; v++) {
+                for (int w : graph[v]) {
+                    targets[k++] = w;
+                }
+                offsets[v + 1] = k;
+            }
+            if (kuhn == null) {
+                kuhn = new KuhnAlgorithm(n, n, offsets, targets);
+                hopcroftKarp = new HopcroftKarp(n, n, offsets, targets);
+            } else {
+                kuhn.setGraph(offsets, targets);
+                hopcroftKarp.setGraph(offsets, targets);
+            }
+
+            var expected = new KuhnAlgorithm(n, n, graph).findMaxBipartiteMatching();
+            var kuhnResult = kuhn.findMaxBipartiteMatching();
+            assertEquals(expected.m, kuhnResult.m);
+            assertIsMatching(graph, kuhnResult);
+            var result = hopcroftKarp.findMaxBipartiteMatching();
+            assertEquals(expected.m, result.m);
+            assertIsMatching(graph, result);
+        }
+    }
+
+    private static int[][] randomEdges(Random random, int n) {
+        List<int[]> edges = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            for (int w = 0; w < n; w++) {
+                if (random.nextInt(6) == 0) {
+                    edges.add(new int[]{v, w});
+                }
+            }
+        }
+        return edges.toArray(new int[0][]);
+    }
+
+    @Test
+    void testLongAugmentingPaths() {
+        // v_i -> w_i, w_(i+1): matching v_i -> w_(i+1) first leaves v_(n-1) with a path through all vertices
+        int n = 200_000;
+        List<Integer>[] graph = createGraph(n, new int[][]{});
+        for (int v = 0; v < n; v++) {
+            if (v + 1 < n) {
+                graph[v].add(v + 1);
+            }
+            graph[v].add(v);
+        }
+        var result = new HopcroftKarp(n, n, graph).findMaxBipartiteMatching();
+
+        assertEquals(n, result.m);
+        assertIsMatching(graph, result);
+    }
+
+    private static void assertIsMatching(List<Integer>[] graph, KuhnAlgorithm.MaxBipartiteMatch result) {
+        int matched = 0;
+        boolean[] usedV = new boolean[graph.length];
+        for (int w = 0; w < result.matchedWToV.length; w++) {
+            int v = result.matchedWToV[w];
+            if (v != -1) {
+                assertTrue(graph[v].contains(w));
+                assertFalse(usedV[v]);
+                usedV[v] = true;
+                matched++;
+            }
+        }
+        assertEquals(result.m, matched);
+    }
+
+    private List<Integer>[] createGraph(int nV, int[][] edges) {
+        @SuppressWarnings("unchecked")
+        List<Integer>[] graph = new List[nV];
+        for (int i = 0; i < nV; i++) {
+            graph[i] = new ArrayList<>();
+        }
+        for (int[] edge : edges) {
+            graph[edge[0]].add(edge[1]);
+        }
+        return graph;
+    }
+}
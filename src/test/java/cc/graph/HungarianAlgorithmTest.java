@@ -0,0 +1,281 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HungarianAlgorithmTest {
+
+    @Test
+    void testMethodsAgreeOnInputFiles() throws Exception {
+        for (String file : new String[]{"hungarian_input_1.txt", "hungarian_input_2.txt", "hungarian_input_3.txt"}) {
+            HungarianAlgorithm testInstance = new HungarianAlgorithm(file);
+            testInstance.solve(HungarianAlgorithm.Method.LINE_COVER);
+            long expected = testInstance.getTotalCost();
+            assertIsPermutation(testInstance.getAssignment());
+
+            testInstance.solve(HungarianAlgorithm.Method.POTENTIALS);
+            assertEquals(expected, testInstance.getTotalCost());
+            assertIsPermutation(testInstance.getAssignment());
+        }
+    }
+
+    @Test
+    void testLineCoverMatchesPotentials() {
+        Random random = new Random(83);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(40);
+            int[][] cost = new int[n][n];
+            for (int[] row : cost) {
+                for (int j = 0; j < n; j++) {
+                    row[j] = random.nextInt(round % 2 == 0 ? 5 : 500);
+                }
+            }
+            long expected = HungarianAlgorithm.solve(cost).totalCost();
+            for (HungarianAlgorithm.MatchingEngine engine : HungarianAlgorithm.MatchingEngine.values()) {
+                HungarianAlgorithm testInstance = new HungarianAlgorithm(cost);
+                testInstance.setMatchingEngine(engine);
+                testInstance.solve(HungarianAlgorithm.Method.LINE_COVER);
+
+                assertEquals(expected, testInstance.getTotalCost());
+                assertIsPermutation(testInstance.getAssignment());
+            }
+        }
+    }
+
+    @Test
+    void testPotentialsFindMinimalCost() {
+        Random random = new Random(59);
+        for (int round = 0; round < 200; round++) {
+            int n = 1 + random.nextInt(7);
+            int[][] cost = new int[n][n];
+            for (int[] row : cost) {
+                for (int j = 0; j < n; j++) {
+                    row[j] = random.nextInt(round % 2 == 0 ? 10 : 1000) - 100;
+                }
+            }
+            HungarianAlgorithm testInstance = new HungarianAlgorithm(cost);
+            testInstance.solve(HungarianAlgorithm.Method.POTENTIALS);
+
+            assertEquals(bruteForce(cost, 0, new boolean[n]), testInstance.getTotalCost());
+            int[] assignment = testInstance.getAssignment();
+            assertIsPermutation(assignment);
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                total += cost[i][assignment[i]];
+            }
+            assertEquals(total, testInstance.getTotalCost());
+        }
+    }
+
+    @Test
+    void testSolvesInMemoryMatrices() {
+        Random random = new Random(61);
+        for (int round = 0; round < 100; round++) {
+            int n = random.nextInt(7);
+            int[][] ints = new int[n][n];
+            long[][] longs = new long[n][n];
+            double[][] doubles = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    ints[i][j] = random.nextInt(100);
+                    longs[i][j] = ints[i][j] * 1_000_000_000_000L;
+                    doubles[i][j] = ints[i][j] / 8.0;
+                }
+            }
+            long expected = bruteForce(ints, 0, new boolean[n]);
+
+            HungarianAlgorithm.Assignment assignment = HungarianAlgorithm.solve(ints);
+            assertEquals(expected, assignment.totalCost());
+            assertIsPermutation(assignment.rowToColumn());
+            assertEquals(expected * 1_000_000_000_000L, HungarianAlgorithm.solve(longs).totalCost());
+            assertEquals(expected / 8.0, HungarianAlgorithm.solve(doubles).totalCost(), 1e-9);
+        }
+        // totals above 2^53 are exact
+        long big = 1L << 60;
+        long[][] bigCosts = {{big + 1, big + 3}, {big + 5, big + 2}};
+        assertEquals(2 * big + 3, HungarianAlgorithm.solve(bigCosts).totalCost());
+
+        assertThrows(IllegalArgumentException.class, () -> HungarianAlgorithm.solve(new int[][]{{1, 2}, {3}}));
+        assertThrows(IllegalArgumentException.class, () -> HungarianAlgorithm.solve(new double[][]{{Double.NaN}}));
+    }
+
+    @Test
+    void testSolvesRectangularMatrices() {
+        Random random = new Random(67);
+        for (int round = 0; round < 200; round++) {
+            int n = 1 + random.nextInt(6);
+            int m = 1 + random.nextInt(6);
+            int[][] ints = new int[n][m];
+            double[][] doubles = new double[n][m];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < m; j++) {
+                    ints[i][j] = random.nextInt(100) - 20;
+                    doubles[i][j] = ints[i][j] / 4.0;
+                }
+            }
+            long expected = bruteForce(ints, 0, new boolean[m], n - Math.min(n, m));
+
+            HungarianAlgorithm.Assignment assignment = HungarianAlgorithm.solve(ints);
+            assertEquals(expected, assignment.totalCost());
+            assertEquals(Math.min(n, m), assignment.assignedRows());
+            assertIsPartialMatching(assignment.rowToColumn(), m);
+            assertEquals(expected / 4.0, HungarianAlgorithm.solve(doubles).totalCost(), 1e-9);
+        }
+    }
+
+    @Test
+    void testSparseMatchesDenseWithForbiddenPairs() {
+        Random random = new Random(71);
+        long forbidden = 1_000_000_000L;
+        for (int round = 0; round < 300; round++) {
+            int n = 1 + random.nextInt(8);
+            int m = n + random.nextInt(4);
+            long[][] dense = new long[n][m];
+            for (long[] row : dense) {
+                Arrays.fill(row, forbidden);
+            }
+            // a hidden perfect assignment of rows keeps the dense optimum away from forbidden pairs
+            int[] hidden = randomInjection(random, n, m);
+            List<int[]> edges = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < m; j++) {
+                    if (hidden[i] == j || random.nextInt(3) == 0) {
+                        dense[i][j] = random.nextInt(50) - 10;
+                        edges.add(new int[]{i, j});
+                    }
+                }
+            }
+            Collections.shuffle(edges, random);
+            int[] edgeRows = new int[edges.size()];
+            int[] edgeCols = new int[edges.size()];
+            long[] edgeCosts = new long[edges.size()];
+            for (int k = 0; k < edges.size(); k++) {
+                edgeRows[k] = edges.get(k)[0];
+                edgeCols[k] = edges.get(k)[1];
+                edgeCosts[k] = dense[edgeRows[k]][edgeCols[k]];
+            }
+            SparseCostMatrix sparse = SparseCostMatrix.fromEdges(n, m, edgeRows, edgeCols, edgeCosts);
+
+            HungarianAlgorithm.Assignment expected = HungarianAlgorithm.solve(dense);
+            HungarianAlgorithm.Assignment assignment = HungarianAlgorithm.solve(sparse);
+            assertEquals(expected.totalCost(), assignment.totalCost());
+            assertEquals(n, assignment.assignedRows());
+            assertIsPartialMatching(assignment.rowToColumn(), m);
+            assertEquals(sum(dense, assignment.rowToColumn()), assignment.totalCost());
+        }
+    }
+
+    @Test
+    void testSparseLeavesRowsWithoutPathUnassigned() {
+        // rows 0 and 1 compete for column 0 only, row 2 has no pairs
+        SparseCostMatrix sparse = SparseCostMatrix.fromEdges(4, 2,
+                new int[]{0, 1, 3, 3}, new int[]{0, 0, 0, 1}, new long[]{5, 3, 1, 4});
+
+        HungarianAlgorithm.Assignment assignment = HungarianAlgorithm.solve(sparse);
+
+        assertEquals(2, assignment.assignedRows());
+        assertEquals(HungarianAlgorithm.Assignment.NONE, assignment.columnOf(2));
+        assertEquals(1, assignment.columnOf(3));
+        assertEquals(0, assignment.columnOf(0));
+        assertEquals(HungarianAlgorithm.Assignment.NONE, assignment.columnOf(1));
+        assertEquals(9, assignment.totalCost());
+    }
+
+    @Test
+    void testTracesLineCoverSteps() {
+        List<String> titles = new ArrayList<>();
+        HungarianAlgorithm testInstance = new HungarianAlgorithm(new int[][]{
+                {4, 1, 3},
+                {2, 0, 5},
+                {3, 2, 2},
+        });
+        testInstance.setTracer(new HungarianAlgorithm.Tracer() {
+            @Override
+            public void matrix(String title, int[][] costMatrix) {
+                titles.add(title);
+            }
+        });
+        testInstance.solve(HungarianAlgorithm.Method.LINE_COVER);
+
+        assertEquals(5, testInstance.getTotalCost());
+        assertEquals("Input read:", titles.get(0));
+        assertEquals("Reduction applied:", titles.get(1));
+    }
+
+    private static long bruteForce(int[][] cost, int row, boolean[] usedCols) {
+        return bruteForce(cost, row, usedCols, 0);
+    }
+
+    /**
+     * Minimal cost of assigning rows from the given one on, skipping exactly skips of them.
+     */
+    private static long bruteForce(int[][] cost, int row, boolean[] usedCols, int skips) {
+        if (row == cost.length) {
+            return skips == 0 ? 0 : Long.MAX_VALUE;
+        }
+        long best = Long.MAX_VALUE;
+        if (skips > 0) {
+            best = bruteForce(cost, row + 1, usedCols, skips - 1);
+        }
+        for (int j = 0; j < usedCols.length; j++) {
+            if (!usedCols[j]) {
+                usedCols[j] = true;
+                long rest = bruteForce(cost, row + 1, usedCols, skips);
+                if (rest != Long.MAX_VALUE) {
+                    best = Math.min(best, cost[row][j] + rest);
+                }
+                usedCols[j] = false;
+            }
+        }
+        return best;
+    }
+
+    private static long sum(long[][] cost, int[] rowToColumn) {
+        long total = 0;
+        for (int i = 0; i < rowToColumn.length; i++) {
+            if (rowToColumn[i] != HungarianAlgorithm.Assignment.NONE) {
+                total += cost[i][rowToColumn[i]];
+            }
+        }
+        return total;
+    }
+
+    private static int[] randomInjection(Random random, int n, int m) {
+        int[] cols = new int[m];
+        for (int j = 0; j < m; j++) {
+            cols[j] = j;
+        }
+        for (int j = m - 1; j > 0; j--) {
+            int k = random.nextInt(j + 1);
+            int t = cols[j];
+            cols[j] = cols[k];
+            cols[k] = t;
+        }
+        return Arrays.copyOf(cols, n);
+    }
+
+    private static void assertIsPartialMatching(int[] assignment, int cols) {
+        boolean[] seen = new boolean[cols];
+        for (int col : assignment) {
+            if (col != HungarianAlgorithm.Assignment.NONE) {
+                assertFalse(seen[col]);
+                seen[col] = true;
+            }
+        }
+    }
+
+    private static void assertIsPermutation(int[] assignment) {
+        boolean[] seen = new boolean[assignment.length];
+        for (int col : assignment) {
+            assertFalse(seen[col]);
+            seen[col] = true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedMinHeapTest {
+
+    @Test
+    void testPollsInKeyOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.push(0, 5.0);
+        heap.push(1, 1.0);
+        heap.push(2, 3.0);
+        heap.push(3, 4.0);
+        heap.push(4, 2.0);
+
+        assertEquals(5, heap.size());
+        assertEquals(1, heap.poll());
+        assertEquals(4, heap.poll());
+        assertEquals(2, heap.poll());
+        assertEquals(3, heap.poll());
+        assertEquals(0, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void testDecreaseKeyKeepsSingleEntry() {
+        IndexedMinHeap heap = new IndexedMinHeap(3);
+        heap.push(0, 10.0);
+        heap.push(1, 5.0);
+        heap.push(0, 1.0); // decrease-key, not a duplicate
+        heap.push(2, 7.0);
+
+        assertEquals(3, heap.size());
+        assertEquals(1.0, heap.peekKey(), 0.0);
+        assertEquals(0, heap.poll());
+        assertFalse(heap.contains(0));
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.push(0, 1.0);
+        heap.push(1, 2.0);
+        heap.push(2, 3.0);
+        heap.remove(0);
+        assertFalse(heap.contains(0));
+        assertEquals(1, heap.poll());
+
+        heap.push(3, 0.5);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(2));
+        assertFalse(heap.contains(3));
+    }
+
+    @Test
+    void testRandomOperationsAgainstBruteForce() {
+        int capacity = 200;
+        Random random = new Random(42);
+        IndexedMinHeap heap = new IndexedMinHeap(capacity);
+        double[] expected = new double[capacity];
+        java.util.Arrays.fill(expected, Double.NaN);
+
+        for (int step = 0; step < 10_000; step++) {
+            if (random.nextInt(3) > 0) {
+                int id = random.nextInt(capacity);
+                double key = random.nextInt(1000);
+                heap.push(id, key);
+                expected[id] = key;
+            } else if (!heap.isEmpty()) {
+                double min = Double.MAX_VALUE;
+                for (double key : expected) {
+                    if (!Double.isNaN(key)) {
+                        min = Math.min(min, key);
+                    }
+                }
+                int id = heap.poll();
+                assertEquals(min, expected[id], 0.0);
+                expected[id] = Double.NaN;
+            }
+        }
+    }
+}
@@ -97,6 +97,45 @@ public class KuhnAlgorithmTest {
         assertEquals(-1, result.matchedWToV[3]); // w3 unmatched
     }
 
+    @Test
+    void testCompressedSparseRowGraph() {
+        // V={0, 1}, W={0, 1}. Edges: (0, 0), (0, 1), (1, 0)
+        int[] offsets = {0, 2, 3};
+        int[] targets = {0, 1, 0};
+        KuhnAlgorithm solver = new KuhnAlgorithm(2, 2, offsets, targets);
+        var result = solver.findMaxBipartiteMatching();
+
+        assertEquals(2, result.m);
+
+        assertEquals(1, result.matchedWToV[0]); // w0 -> v1
+        assertEquals(0, result.matchedWToV[1]); // w1 -> v0
+
+        assertThrows(IllegalArgumentException.class, () -> new KuhnAlgorithm(2, 2, new int[]{0, 2}, targets));
+    }
+
+    @Test
+    void testLongAugmentingPath() {
+        // v_i -> w_(i+1), w_i: the last vertex is matched along a path through all vertices
+        int n = 200_000;
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[2 * n - 1];
+        int k = 0;
+        for (int v = 0; v < n; v++) {
+            if (v + 1 < n) {
+                targets[k++] = v + 1;
+            }
+            targets[k++] = v;
+            offsets[v + 1] = k;
+        }
+        KuhnAlgorithm solver = new KuhnAlgorithm(n, n, offsets, targets);
+        var result = solver.findMaxBipartiteMatching();
+
+        assertEquals(n, result.m);
+        for (int w = 0; w < n; w++) {
+            assertEquals(w, result.matchedWToV[w]);
+        }
+    }
+
     private List<Integer>[] createGraph(int nV, int[][] edges) {
         @SuppressWarnings("unchecked")
         List<Integer>[] graph = new List[nV];
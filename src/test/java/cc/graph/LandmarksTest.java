@@ -0,0 +1,90 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LandmarksTest {
+
+    @Test
+    void testLowerBoundIsAdmissible() {
+        Random random = new Random(41);
+        char[][] grid = AStarTest.randomGrid(random, 40, 60, 0.3);
+        BitGrid bitGrid = BitGrid.of(grid);
+        Landmarks testInstance = Landmarks.select(bitGrid, 8, Long.MAX_VALUE);
+        assertEquals(8, testInstance.count());
+
+        for (int query = 0; query < 20; query++) {
+            Point target = new Point(random.nextInt(40), random.nextInt(60));
+            if (!bitGrid.isFree(target.x, target.y)) {
+                continue;
+            }
+            FlowField exact = FlowField.of(bitGrid, target);
+            for (int x = 0; x < 40; x++) {
+                for (int y = 0; y < 60; y++) {
+                    int distance = exact.distance(x, y);
+                    if (distance != FlowField.UNREACHABLE) {
+                        assertTrue(testInstance.lowerBound(x * 60 + y, target.x * 60 + target.y) <= distance);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSamePathLengthsWithLandmarks() {
+        Random random = new Random(43);
+        char[][] grid = AStarTest.randomGrid(random, 50, 70, 0.3);
+        AStar plain = new AStar(grid);
+        AStar testInstance = new AStar(grid);
+        testInstance.setLandmarks(Landmarks.select(testInstance.grid(), 6, 1 << 20));
+
+        for (int query = 0; query < 100; query++) {
+            Point source = new Point(random.nextInt(50), random.nextInt(70));
+            Point target = new Point(random.nextInt(50), random.nextInt(70));
+            for (AStar.Strategy strategy : AStar.Strategy.values()) {
+                List<Point> expected = plain.findPath(source, target, strategy);
+                List<Point> actual = testInstance.findPath(source, target, strategy);
+                assertEquals(expected.size(), actual.size());
+                if (!actual.isEmpty()) {
+                    AStarTest.assertValidPath(grid, source, target, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMemoryBudgetLimitsLandmarks() {
+        BitGrid grid = BitGrid.of(AStarTest.randomGrid(new Random(47), 100, 100, 0.2));
+        Landmarks testInstance = Landmarks.select(grid, 16, 3 * 100 * 100 * Short.BYTES + 1);
+
+        assertEquals(3, testInstance.count());
+        assertEquals(3 * 100 * 100 * Short.BYTES, testInstance.bytes());
+        assertEquals(0, Landmarks.select(grid, 16, 1000).count());
+    }
+
+    @Test
+    void testIgnoredAfterGridChange() {
+        char[][] grid = {
+                "-----".toCharArray(),
+                "-###-".toCharArray(),
+                "-----".toCharArray(),
+        };
+        AStar testInstance = new AStar(grid);
+        Landmarks landmarks = Landmarks.select(testInstance.grid(), 2, Long.MAX_VALUE);
+        testInstance.setLandmarks(landmarks);
+        assertTrue(landmarks.isCurrent());
+        assertEquals(4, testInstance.findPath(new Point(0, 0), new Point(2, 2)).size());
+
+        testInstance.setBlocked(new Point(1, 0), true);
+        assertFalse(landmarks.isCurrent());
+        assertEquals(8, testInstance.findPath(new Point(0, 0), new Point(2, 2)).size());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> testInstance.setLandmarks(Landmarks.select(BitGrid.of(grid), 1, Long.MAX_VALUE)));
+    }
+}
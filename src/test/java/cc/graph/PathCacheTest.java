@@ -0,0 +1,68 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathCacheTest {
+
+    @Test
+    void testCountsHitsAndMisses() {
+        char[][] grid = {
+                "-----".toCharArray(),
+                "-----".toCharArray(),
+        };
+        AStar astar = new AStar(grid);
+        PathCache cache = new PathCache(100);
+        astar.setPathCache(cache);
+
+        GridPath first = astar.findGridPath(new Point(0, 0), new Point(1, 4));
+        GridPath second = astar.findGridPath(new Point(0, 0), new Point(1, 4));
+        astar.findGridPath(new Point(1, 4), new Point(0, 0));
+
+        assertSame(first, second);
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.size());
+        assertEquals(12, cache.cells());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedByCells() {
+        PathCache cache = new PathCache(10);
+        GridPath path = GridPath.of(10, new int[]{0, 1, 2, 3});
+        cache.put(0, 3, 0, path);
+        cache.put(1, 3, 0, path);
+        cache.get(0, 3, 0); // 0 -> 3 becomes the most recent
+        cache.put(2, 3, 0, path);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertNotNull(cache.get(0, 3, 0));
+        assertNull(cache.get(1, 3, 0));
+        assertNotNull(cache.get(2, 3, 0));
+    }
+
+    @Test
+    void testInvalidatesWhenGridChanges() {
+        char[][] grid = {
+                "---".toCharArray(),
+                "---".toCharArray(),
+        };
+        AStar astar = new AStar(grid);
+        PathCache cache = new PathCache(100);
+        astar.setPathCache(cache);
+        Point source = new Point(0, 0);
+        Point target = new Point(0, 2);
+
+        assertEquals(2, astar.findGridPath(source, target).steps());
+        astar.setBlocked(new Point(0, 1), true);
+        GridPath detour = astar.findGridPath(source, target);
+
+        assertEquals(4, detour.steps());
+        assertEquals(1, cache.invalidations());
+        assertEquals(0, cache.hits());
+    }
+}
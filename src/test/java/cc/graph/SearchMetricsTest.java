@@ -0,0 +1,121 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchMetricsTest {
+
+    @Test
+    void testReportsEverySearch() {
+        Random random = new Random(53);
+        AStar testInstance = new AStar(AStarTest.randomGrid(random, 40, 40, 0.2));
+        List<SearchStats> reported = new ArrayList<>();
+        testInstance.setSearchListener(reported::add);
+
+        for (AStar.Strategy strategy : AStar.Strategy.values()) {
+            reported.clear();
+            Point source = new Point(0, 0);
+            Point target = new Point(39, 39);
+            testInstance.grid().setFree(source.x, source.y, true);
+            testInstance.grid().setFree(target.x, target.y, true);
+            GridPath path = testInstance.findGridPath(source, target, strategy);
+
+            assertEquals(1, reported.size());
+            SearchStats stats = reported.get(0);
+            assertEquals(strategy, stats.strategy());
+            assertEquals(!path.isEmpty(), stats.found());
+            assertEquals(path.steps(), stats.steps());
+            assertTrue(stats.expanded() > 0);
+            // a search may poll the target and stop without expanding it
+            long notExpanded = stats.polls() - stats.expanded() - stats.stalePolls();
+            assertTrue(notExpanded == 0 || notExpanded == 1);
+            assertTrue(stats.pushes() >= stats.polls());
+            assertTrue(stats.peakOpenSize() > 0);
+            assertTrue(stats.nanos() >= 0);
+        }
+
+        testInstance.setSearchListener(null);
+        reported.clear();
+        testInstance.findGridPath(new Point(0, 0), new Point(39, 39));
+        assertTrue(reported.isEmpty());
+    }
+
+    @Test
+    void testReportsCacheHits() {
+        AStar testInstance = new AStar(AStarTest.randomGrid(new Random(59), 30, 30, 0.1));
+        testInstance.setPathCache(new PathCache(10_000));
+        SearchMetrics metrics = new SearchMetrics();
+        List<SearchStats> reported = new ArrayList<>();
+        testInstance.setSearchListener(stats -> {
+            metrics.searchCompleted(stats);
+            reported.add(stats);
+        });
+        Point source = new Point(0, 0);
+        Point target = new Point(29, 29);
+        testInstance.grid().setFree(source.x, source.y, true);
+        testInstance.grid().setFree(target.x, target.y, true);
+
+        GridPath searched = testInstance.findGridPath(source, target);
+        GridPath cached = testInstance.findGridPath(source, target);
+
+        assertEquals(2, reported.size());
+        assertFalse(reported.get(0).cached());
+        SearchStats stats = reported.get(1);
+        assertTrue(stats.cached());
+        assertEquals(!cached.isEmpty(), stats.found());
+        assertEquals(searched.steps(), stats.steps());
+        assertEquals(0, stats.expanded());
+        assertEquals(0, stats.pushes());
+        assertEquals(2, metrics.queries());
+        assertEquals(1, metrics.cacheHits());
+    }
+
+    @Test
+    void testLandmarksExpandFewerCells() throws IOException {
+        BitGrid grid;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("graph/a_star_case1.txt")) {
+            grid = GridFiles.readText(in);
+        }
+        AStar testInstance = new AStar(grid);
+        SearchMetrics plain = new SearchMetrics();
+        testInstance.setSearchListener(plain);
+        testInstance.findGridPath(new Point(3, 1), new Point(6, 38));
+
+        SearchMetrics alt = new SearchMetrics();
+        testInstance.setSearchListener(alt);
+        testInstance.setLandmarks(Landmarks.select(grid, 4, Long.MAX_VALUE));
+        testInstance.findGridPath(new Point(3, 1), new Point(6, 38));
+
+        assertEquals(1, plain.queries());
+        assertEquals(1, alt.found());
+        assertTrue(alt.histograms().get("expanded").sum() < plain.histograms().get("expanded").sum());
+    }
+
+    @Test
+    void testHistogramBuckets() {
+        SearchMetrics.Histogram testInstance = new SearchMetrics.Histogram();
+        assertEquals(0, testInstance.quantile(0.5));
+        for (long value : new long[]{0, 1, 2, 3, 4, 100, 1000}) {
+            testInstance.record(value);
+        }
+
+        assertEquals(7, testInstance.count());
+        assertEquals(1110, testInstance.sum());
+        assertEquals(1000, testInstance.max());
+        assertEquals(1, testInstance.bucketCount(0));
+        assertEquals(1, testInstance.bucketCount(1));
+        assertEquals(2, testInstance.bucketCount(2));
+        assertEquals(1, testInstance.bucketCount(3));
+        assertEquals(3, testInstance.quantile(0.5));
+        assertEquals(1000, testInstance.quantile(1.0));
+        assertEquals(63, SearchMetrics.Histogram.bucket(Long.MAX_VALUE));
+    }
+}
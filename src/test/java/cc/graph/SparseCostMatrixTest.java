@@ -0,0 +1,41 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SparseCostMatrixTest {
+
+    @Test
+    void testFromEdgesGroupsPairsByRow() {
+        SparseCostMatrix testInstance = SparseCostMatrix.fromEdges(3, 4,
+                new int[]{2, 0, 2, 0}, new int[]{1, 3, 0, 2}, new long[]{10, 20, 30, 40});
+
+        assertEquals(3, testInstance.rows());
+        assertEquals(4, testInstance.columns());
+        assertEquals(4, testInstance.pairs());
+        assertEquals(0, testInstance.rowStart(0));
+        assertEquals(2, testInstance.rowEnd(0));
+        assertEquals(2, testInstance.rowStart(1));
+        assertEquals(2, testInstance.rowEnd(1));
+        assertEquals(3, testInstance.column(0));
+        assertEquals(20, testInstance.cost(0));
+        assertEquals(2, testInstance.column(1));
+        assertEquals(40, testInstance.cost(1));
+        assertEquals(1, testInstance.column(2));
+        assertEquals(0, testInstance.column(3));
+        assertEquals(30, testInstance.cost(3));
+    }
+
+    @Test
+    void testRejectsInvalidLayouts() {
+        assertThrows(IllegalArgumentException.class, () -> SparseCostMatrix.fromEdges(2, 2,
+                new int[]{0, 0}, new int[]{1, 1}, new long[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> SparseCostMatrix.fromEdges(2, 2,
+                new int[]{0}, new int[]{2}, new long[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> SparseCostMatrix.fromEdges(2, 2,
+                new int[]{2}, new int[]{0}, new long[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> new SparseCostMatrix(2, 2,
+                new int[]{0, 2, 1}, new int[]{0}, new long[]{1}));
+    }
+}
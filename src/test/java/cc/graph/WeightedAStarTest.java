@@ -0,0 +1,137 @@
+package cc.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedAStarTest {
+
+    @Test
+    void testUnitCostsMatchAStar() {
+        Random random = new Random(17);
+        char[][] grid = AStarTest.randomGrid(random, 40, 70, 0.25);
+        BitGrid bitGrid = BitGrid.of(grid);
+        AStar astar = new AStar(bitGrid);
+        WeightedAStar testInstance = new WeightedAStar(WeightedGrid.of(bitGrid));
+        for (int query = 0; query < 100; query++) {
+            Point source = new Point(random.nextInt(40), random.nextInt(70));
+            Point target = new Point(random.nextInt(40), random.nextInt(70));
+            List<Point> expected = astar.findPath(source, target);
+            List<Point> actual = testInstance.findPath(source, target);
+            assertEquals(expected.size(), actual.size());
+            if (!actual.isEmpty()) {
+                AStarTest.assertValidPath(grid, source, target, actual);
+            }
+        }
+    }
+
+    @Test
+    void testAvoidsExpensiveTerrain() {
+        // road around the mud is cheaper than the straight line
+        int[][] costs = {
+                {1, 9, 9, 9, 1},
+                {1, 1, 1, 1, 1},
+        };
+        WeightedAStar testInstance = new WeightedAStar(WeightedGrid.of(costs));
+
+        assertEquals(6, testInstance.distance(new Point(0, 0), new Point(0, 4)));
+        assertEquals(6, testInstance.findPath(new Point(0, 0), new Point(0, 4)).size());
+    }
+
+    @Test
+    void testRandomCostsMatchDijkstra() {
+        Random random = new Random(23);
+        for (int round = 0; round < 10; round++) {
+            int m = 10 + random.nextInt(30);
+            int n = 10 + random.nextInt(30);
+            int[][] costs = new int[m][n];
+            for (int[] row : costs) {
+                for (int j = 0; j < n; j++) {
+                    row[j] = random.nextInt(5) == 0 ? WeightedGrid.BLOCKED : 1 + random.nextInt(20);
+                }
+            }
+            WeightedGrid grid = WeightedGrid.of(costs);
+            WeightedAStar testInstance = new WeightedAStar(grid);
+            for (int query = 0; query < 20; query++) {
+                Point source = new Point(random.nextInt(m), random.nextInt(n));
+                Point target = new Point(random.nextInt(m), random.nextInt(n));
+                int expected = dijkstra(costs, source, target);
+                assertEquals(expected, testInstance.distance(source, target));
+
+                List<Point> path = testInstance.findPath(source, target);
+                int pathCost = path.stream().mapToInt(p -> costs[p.x][p.y]).sum();
+                assertEquals(expected <= 0 ? 0 : expected, pathCost);
+            }
+        }
+    }
+
+    @Test
+    void testBucketQueueOrder() {
+        BucketQueue queue = new BucketQueue(5, 10);
+        queue.push(0, 7);
+        queue.push(1, 3);
+        queue.push(2, 12);
+        queue.push(0, 4); // decrease-key
+        assertEquals(1, queue.poll());
+        queue.push(3, 5);
+        assertEquals(0, queue.poll());
+        assertEquals(3, queue.poll());
+        assertEquals(2, queue.poll());
+        assertTrue(queue.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> {
+            queue.push(4, 100);
+            queue.push(1, 100 + queue.span() + 1);
+        });
+    }
+
+    @Test
+    void testRejectsGridsWithOverflowingPathCosts() {
+        // 10M cells of cost up to 255: a path may cost over Integer.MAX_VALUE
+        WeightedGrid grid = new WeightedGrid(10_000, 1_000);
+        grid.setCost(0, 0, 1);
+        grid.setCost(0, 1, 1);
+        WeightedAStar testInstance = new WeightedAStar(grid);
+        assertEquals(1, testInstance.distance(new Point(0, 0), new Point(0, 1)));
+
+        grid.setCost(0, 1, WeightedGrid.MAX_COST);
+        assertThrows(IllegalStateException.class, () -> testInstance.distance(new Point(0, 0), new Point(0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new WeightedAStar(grid));
+        assertThrows(IllegalArgumentException.class, () -> FlowField.of(grid, new Point(0, 0)));
+    }
+
+    private static int dijkstra(int[][] costs, Point source, Point target) {
+        if (costs[source.x][source.y] == 0 || costs[target.x][target.y] == 0) {
+            return WeightedAStar.UNREACHABLE;
+        }
+        int m = costs.length;
+        int n = costs[0].length;
+        int[] distance = new int[m * n];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        distance[source.x * n + source.y] = 0;
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
+        queue.add(new int[]{source.x * n + source.y, 0});
+        while (!queue.isEmpty()) {
+            int[] top = queue.poll();
+            if (top[1] > distance[top[0]]) {
+                continue;
+            }
+            int[][] moves = {{-1, 0}, {0, -1}, {1, 0}, {0, 1}};
+            for (int[] move : moves) {
+                int x = top[0] / n + move[0];
+                int y = top[0] % n + move[1];
+                if (x >= 0 && x < m && y >= 0 && y < n && costs[x][y] != 0 && top[1] + costs[x][y] < distance[x * n + y]) {
+                    distance[x * n + y] = top[1] + costs[x][y];
+                    queue.add(new int[]{x * n + y, distance[x * n + y]});
+                }
+            }
+        }
+        int result = distance[target.x * n + target.y];
+        return result == Integer.MAX_VALUE ? WeightedAStar.UNREACHABLE : result;
+    }
+}